@@ -0,0 +1,46 @@
+package dk.emilvn.exam.benchmark;
+
+import dk.emilvn.exam.ExamApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application against a private in-memory H2 database, bulk-loaded on startup by the synthetic seeder
+ * with the given number of results and one participant per hundred of them.
+ */
+final class BenchmarkContext {
+    private static final int MIN_PARTICIPANTS = 100;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, int resultCount) {
+        return start(databaseName, resultCount, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, int resultCount, WebApplicationType webApplicationType, String... extraArgs) {
+        var args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--app.r2dbc.url=r2dbc:h2:mem:///" + databaseName,
+                "--app.r2dbc.username=sa",
+                "--app.r2dbc.password=",
+                "--app.seed.mode=synthetic",
+                "--app.seed.results=" + resultCount,
+                "--app.seed.participants=" + Math.max(MIN_PARTICIPANTS, resultCount / 100),
+                "--logging.level.dk.emilvn.exam.sql=WARN",
+                "--logging.level.root=WARN"
+        ));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(ExamApplication.class)
+                .profiles("benchmark")
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+}
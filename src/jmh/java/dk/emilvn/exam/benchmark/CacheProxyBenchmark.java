@@ -0,0 +1,76 @@
+package dk.emilvn.exam.benchmark;
+
+import dk.emilvn.exam.participant.ParticipantDTO;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import dk.emilvn.exam.participant.ParticipantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a cached findById through the Spring cache proxy with reading the cache directly
+ * and with going to the repository, to isolate the proxy overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheProxyBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int resultCount;
+
+    private ConfigurableApplicationContext context;
+    private ParticipantService participantService;
+    private ParticipantRepository participantRepository;
+    private Cache cache;
+    private Long participantId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("cache", resultCount);
+        participantService = context.getBean(ParticipantService.class);
+        participantRepository = context.getBean(ParticipantRepository.class);
+        cache = context.getBean(CacheManager.class).getCache("participantCache");
+        participantId = participantRepository.findAll().getFirst().getId();
+        participantService.findById(participantId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ParticipantDTO findByIdThroughCacheProxy() {
+        return participantService.findById(participantId);
+    }
+
+    @Benchmark
+    public ParticipantDTO cacheGet() {
+        return cache.get(participantId, ParticipantDTO.class);
+    }
+
+    @Benchmark
+    public ParticipantDTO findByIdFromRepository() {
+        return participantRepository.findById(participantId)
+                .map(participantService::toDTO)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,102 @@
+package dk.emilvn.exam.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /results with the list served from resultCache and serialized by Jackson on every request (jsonCache=false),
+ * against the pre-encoded bytes from jsonCache (jsonCache=true). Runs single-threaded, so time per operation tracks
+ * CPU per request; the process CPU time per request is also printed after each iteration.
+ * mvn -Pbenchmark -DskipTests verify -Djmh.args="JsonResponseCacheBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class JsonResponseCacheBenchmark {
+
+    @Param({"1000", "100000"})
+    private int resultCount;
+
+    @Param({"false", "true"})
+    private boolean jsonCache;
+
+    @Param({"identity", "gzip"})
+    private String acceptEncoding;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+    private com.sun.management.OperatingSystemMXBean operatingSystem;
+    private long cpuTimeAtStart;
+    private long requests;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("json", resultCount, WebApplicationType.SERVLET, "--app.cache.json.enabled=" + jsonCache);
+        httpClient = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/results"))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", acceptEncoding)
+                .build();
+        operatingSystem = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        requests = 0;
+        cpuTimeAtStart = operatingSystem.getProcessCpuTime();
+    }
+
+    // Client and server share the process, so this includes reading the body on the client side
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        if(requests > 0) {
+            var cpuMicros = (operatingSystem.getProcessCpuTime() - cpuTimeAtStart) / 1000.0 / requests;
+            System.out.printf("%nProcess CPU per request: %.1f us (%d requests)%n", cpuMicros, requests);
+        }
+    }
+
+    @Benchmark
+    public long getResults() throws IOException, InterruptedException {
+        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if(response.statusCode() != 200) {
+            throw new IllegalStateException("/results returned " + response.statusCode());
+        }
+        requests++;
+        try(InputStream body = response.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
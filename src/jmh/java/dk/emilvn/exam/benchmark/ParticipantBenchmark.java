@@ -0,0 +1,55 @@
+package dk.emilvn.exam.benchmark;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.participant.Participant;
+import dk.emilvn.exam.result.ResultType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticipantBenchmark {
+
+    @Param({"1", "5", "14"})
+    private int disciplineCount;
+
+    private Participant participant;
+    private Discipline lastDiscipline;
+    private Discipline missingDiscipline;
+
+    @Setup
+    public void setUp() {
+        participant = new Participant(1L, "Participant", true, LocalDate.of(1996, 1, 1), "Club");
+        for(long id = 1; id <= disciplineCount; id++) {
+            lastDiscipline = new Discipline(id, "Discipline" + id, ResultType.POINTS);
+            participant.addDiscipline(lastDiscipline);
+        }
+        missingDiscipline = new Discipline(1000L, "Missing", ResultType.POINTS);
+    }
+
+    @Benchmark
+    public boolean hasDisciplineHit() {
+        return participant.hasDiscipline(lastDiscipline);
+    }
+
+    @Benchmark
+    public boolean hasDisciplineMiss() {
+        return participant.hasDiscipline(missingDiscipline);
+    }
+}
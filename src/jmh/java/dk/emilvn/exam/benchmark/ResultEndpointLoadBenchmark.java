@@ -0,0 +1,94 @@
+package dk.emilvn.exam.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Side-by-side load on the blocking and reactive result reads, 16 concurrent clients each reading the full body.
+ * The result and JSON caches are switched off, so every request on either side goes to the database.
+ * SampleTime reports latency percentiles; add -prof gc to compare allocated bytes per request:
+ * mvn -Pbenchmark -DskipTests verify -Djmh.args="ResultEndpointLoadBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ResultEndpointLoadBenchmark {
+
+    @Param({"1000", "100000"})
+    private int resultCount;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("load", resultCount, WebApplicationType.SERVLET,
+                "--app.cache.json.enabled=false",
+                "--app.cache.resultCache.expire-after-write=0s");
+        httpClient = HttpClient.newHttpClient();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    // Runs the DTO projection query and serializes the list on the request thread
+    @Benchmark
+    public long blockingResults() throws IOException, InterruptedException {
+        return get("/results", "application/json");
+    }
+
+    // Streams from a JDBC cursor on the request thread
+    @Benchmark
+    public long blockingExport() throws IOException, InterruptedException {
+        return get("/results/export", "application/x-ndjson");
+    }
+
+    @Benchmark
+    public long reactiveResults() throws IOException, InterruptedException {
+        return get("/reactive/results", "application/x-ndjson");
+    }
+
+    private long get(String path, String accept) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", accept)
+                .build();
+        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if(response.statusCode() != 200) {
+            throw new IllegalStateException(path + " returned " + response.statusCode());
+        }
+        try(InputStream body = response.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dk.emilvn.exam.benchmark;
+
+import dk.emilvn.exam.participant.ParticipantService;
+import dk.emilvn.exam.result.Result;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import dk.emilvn.exam.result.ResultService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultMappingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int resultCount;
+
+    private ConfigurableApplicationContext context;
+    private ResultService resultService;
+    private Result result;
+    private ResultDTO resultDTO;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("mapping", resultCount);
+        resultService = context.getBean(ResultService.class);
+
+        var seeded = context.getBean(ResultRepository.class).findAsDTOById(1L).orElseThrow();
+        var participant = context.getBean(ParticipantService.class).findEntityById(seeded.participantId());
+        var discipline = participant.getDisciplines().stream()
+                .filter(d -> d.getId().equals(seeded.disciplineId()))
+                .findFirst()
+                .orElseThrow();
+        result = new Result(seeded.id(), seeded.date(), seeded.result(), seeded.resultType(), participant, discipline);
+        resultDTO = new ResultDTO(null, seeded.date(), seeded.result(), seeded.resultType(), seeded.participantId(), seeded.disciplineId());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResultDTO toDTO() {
+        return resultService.toDTO(result);
+    }
+
+    // Includes the participant and discipline lookups fromDTO performs on every write
+    @Benchmark
+    public Result fromDTO() {
+        return resultService.fromDTO(resultDTO);
+    }
+}
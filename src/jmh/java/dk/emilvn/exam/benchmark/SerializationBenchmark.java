@@ -0,0 +1,53 @@
+package dk.emilvn.exam.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int resultCount;
+
+    private ObjectMapper objectMapper;
+    private List<ResultDTO> results;
+
+    @Setup
+    public void setUp() {
+        // Configured the same way as the ObjectMapper Spring Boot gives the MVC message converters
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        results = new ArrayList<>(resultCount);
+        for(long id = 1; id <= resultCount; id++) {
+            results.add(new ResultDTO(id, LocalDate.of(2024, 1, 1), (int) (id % 100_000), ResultType.TIME_IN_MILLISECONDS, id % 1000, id % 14));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeResultList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(results);
+    }
+}
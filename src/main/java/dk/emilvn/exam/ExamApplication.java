@@ -2,8 +2,10 @@ package dk.emilvn.exam;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// An auto-configured ConnectionFactory bean would switch off the JDBC DataSource, so R2dbcConfig builds its own
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ExamApplication {
 
 	public static void main(String[] args) {
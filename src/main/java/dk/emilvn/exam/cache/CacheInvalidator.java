@@ -0,0 +1,25 @@
+package dk.emilvn.exam.cache;
+
+import org.springframework.cache.CacheManager;
+
+public class CacheInvalidator {
+    private final CacheManager cacheManager;
+    private final CacheTagIndex tagIndex;
+
+    public CacheInvalidator(CacheManager cacheManager, CacheTagIndex tagIndex) {
+        this.cacheManager = cacheManager;
+        this.tagIndex = tagIndex;
+    }
+
+    // Evicts every entry, in any cache, that was tagged with one of the given tags
+    public void evictTags(String... tags) {
+        for(var tag : tags) {
+            for(var cacheKey : tagIndex.getKeys(tag)) {
+                var cache = cacheManager.getCache(cacheKey.cacheName());
+                if(cache != null) {
+                    cache.evict(cacheKey.key());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dk.emilvn.exam.cache;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class CacheStatsController {
+    private final CacheStatsService cacheStatsService;
+
+    public CacheStatsController(CacheStatsService cacheStatsService) {
+        this.cacheStatsService = cacheStatsService;
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatsDTO>> getAll() {
+        return ResponseEntity.ok(cacheStatsService.findAll());
+    }
+
+    @GetMapping("/caches/{name}")
+    public ResponseEntity<CacheStatsDTO> getByName(@PathVariable String name) {
+        return ResponseEntity.ok(cacheStatsService.findByName(name));
+    }
+}
@@ -0,0 +1,16 @@
+package dk.emilvn.exam.cache;
+
+public record CacheStatsDTO(
+        String name,
+        long estimatedSize,
+        long weightedSize,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount,
+        long evictionWeight,
+        long loadCount,
+        long loadFailureCount,
+        double averageLoadPenaltyMillis
+) {
+}
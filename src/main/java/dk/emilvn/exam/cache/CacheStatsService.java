@@ -0,0 +1,47 @@
+package dk.emilvn.exam.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import dk.emilvn.exam.error.NotFoundException;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class CacheStatsService {
+    private final CacheManager cacheManager;
+
+    public CacheStatsService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public List<CacheStatsDTO> findAll() {
+        return cacheManager.getCacheNames().stream()
+                .map(this::findByName)
+                .toList();
+    }
+
+    public CacheStatsDTO findByName(String name) {
+        var cache = cacheManager.getCache(name);
+        if(cache == null || !(cache.getNativeCache() instanceof Cache<?, ?> nativeCache)) {
+            throw new NotFoundException("Cache not found");
+        }
+        var stats = nativeCache.stats();
+        var weightedSize = nativeCache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new CacheStatsDTO(
+                name,
+                nativeCache.estimatedSize(),
+                weightedSize,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.evictionWeight(),
+                stats.loadCount(),
+                stats.loadFailureCount(),
+                stats.averageLoadPenalty() / 1_000_000.0
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package dk.emilvn.exam.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps tags to the cache entries carrying them, and back, across all caches.
+ */
+public class CacheTagIndex {
+    private final Map<String, Set<CacheKey>> keysByTag = new ConcurrentHashMap<>();
+    private final Map<CacheKey, Set<String>> tagsByKey = new ConcurrentHashMap<>();
+
+    public record CacheKey(String cacheName, Object key) {
+    }
+
+    public void register(String cacheName, Object key, Set<String> tags) {
+        var cacheKey = new CacheKey(cacheName, key);
+        unregister(cacheName, key);
+        if(tags.isEmpty()) {
+            return;
+        }
+        tagsByKey.put(cacheKey, Set.copyOf(tags));
+        for(var tag : tags) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(cacheKey);
+        }
+    }
+
+    public void unregister(String cacheName, Object key) {
+        var cacheKey = new CacheKey(cacheName, key);
+        var tags = tagsByKey.remove(cacheKey);
+        if(tags == null) {
+            return;
+        }
+        for(var tag : tags) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(cacheKey);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    public void unregisterAll(String cacheName) {
+        tagsByKey.keySet().stream()
+                .filter(cacheKey -> cacheKey.cacheName().equals(cacheName))
+                .toList()
+                .forEach(cacheKey -> unregister(cacheName, cacheKey.key()));
+    }
+
+    public Set<CacheKey> getKeys(String tag) {
+        return Set.copyOf(keysByTag.getOrDefault(tag, Set.of()));
+    }
+}
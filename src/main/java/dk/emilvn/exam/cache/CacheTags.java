@@ -0,0 +1,62 @@
+package dk.emilvn.exam.cache;
+
+import dk.emilvn.exam.discipline.DisciplineDTO;
+import dk.emilvn.exam.participant.ParticipantDTO;
+import dk.emilvn.exam.result.ResultDTO;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tags name the entities a cached value was built from, so a write can evict
+ * exactly the entries that contain the changed entity.
+ */
+public final class CacheTags {
+
+    private CacheTags() {
+    }
+
+    public static String participant(Long id) {
+        return "participant:" + id;
+    }
+
+    public static String discipline(Long id) {
+        return "discipline:" + id;
+    }
+
+    public static String result(Long id) {
+        return "result:" + id;
+    }
+
+    // Every list cached in a cache carries this tag, since inserts and deletes can shift any page
+    public static String lists(String cacheName) {
+        return "lists:" + cacheName;
+    }
+
+    public static Set<String> of(String cacheName, Object value) {
+        var tags = new HashSet<String>();
+        if(value instanceof Collection<?> collection) {
+            tags.add(lists(cacheName));
+            collection.forEach(element -> addTags(element, tags));
+        } else {
+            addTags(value, tags);
+        }
+        return tags;
+    }
+
+    private static void addTags(Object value, Set<String> tags) {
+        switch (value) {
+            case ParticipantDTO participant -> tags.add(participant(participant.id()));
+            case DisciplineDTO discipline -> tags.add(discipline(discipline.id()));
+            case ResultDTO result -> {
+                tags.add(result(result.id()));
+                tags.add(participant(result.participantId()));
+                tags.add(discipline(result.disciplineId()));
+            }
+            case CachedJson json -> tags.addAll(json.tags());
+            case null, default -> {
+            }
+        }
+    }
+}
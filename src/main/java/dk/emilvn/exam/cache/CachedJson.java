@@ -0,0 +1,7 @@
+package dk.emilvn.exam.cache;
+
+import java.util.Set;
+
+// gzipBody is null when the body was too small to be worth compressing
+public record CachedJson(byte[] body, byte[] gzipBody, Set<String> tags) {
+}
@@ -0,0 +1,101 @@
+package dk.emilvn.exam.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the encoded JSON of list responses, so a hit hands the stored bytes to the output stream without going through Jackson.
+ * Entries carry the tags of the values they were encoded from, so the usual tag evictions drop them along with the DTO caches.
+ */
+@Component
+public class JsonResponseCache {
+    public static final String CACHE_NAME = "jsonCache";
+    private static final int DEFAULT_GZIP_MIN_SIZE = 1024;
+
+    private final Cache cache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean gzip;
+    private final int gzipMinSize;
+
+    public JsonResponseCache(CacheManager cacheManager, ObjectMapper objectMapper, Environment environment) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+        this.objectMapper = objectMapper;
+        this.enabled = environment.getProperty("app.cache.json.enabled", Boolean.class, true);
+        this.gzip = environment.getProperty("app.cache.json.gzip", Boolean.class, true);
+        this.gzipMinSize = environment.getProperty("app.cache.json.gzip-min-size", Integer.class, DEFAULT_GZIP_MIN_SIZE);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Like the DTO caches, empty lists are not cached
+    public ResponseEntity<byte[]> get(String cacheName, Object key, Supplier<? extends Collection<?>> loader, String acceptEncoding) {
+        var cacheKey = cacheName + ":" + key;
+        var json = cache.get(cacheKey, CachedJson.class);
+        if(json == null) {
+            var value = loader.get();
+            json = encode(cacheName, value);
+            if(!value.isEmpty()) {
+                cache.put(cacheKey, json);
+            }
+        }
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if(json.gzipBody() != null && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.gzipBody());
+        }
+        return response.body(json.body());
+    }
+
+    private CachedJson encode(String cacheName, Collection<?> value) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(value);
+        } catch(JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + cacheName + " response", e);
+        }
+        var gzipBody = gzip && body.length >= gzipMinSize ? compress(body) : null;
+        return new CachedJson(body, gzipBody, CacheTags.of(cacheName, value));
+    }
+
+    private static byte[] compress(byte[] body) {
+        var bytes = new ByteArrayOutputStream(body.length / 4);
+        try(var gzipStream = new GZIPOutputStream(bytes)) {
+            gzipStream.write(body);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if(acceptEncoding == null) {
+            return false;
+        }
+        for(var coding : acceptEncoding.split(",")) {
+            var parts = coding.split(";");
+            if(parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+package dk.emilvn.exam.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator that records the tags of every value it stores in a shared {@link CacheTagIndex}.
+ */
+public class TaggedCache implements Cache {
+    private final Cache delegate;
+    private final CacheTagIndex tagIndex;
+
+    public TaggedCache(Cache delegate, CacheTagIndex tagIndex) {
+        this.delegate = delegate;
+        this.tagIndex = tagIndex;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, () -> {
+            var value = valueLoader.call();
+            tagIndex.register(getName(), key, CacheTags.of(getName(), value));
+            return value;
+        });
+    }
+
+    // Tags are registered after the value is stored, so an eviction in between can never leave the value untagged
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        tagIndex.register(getName(), key, CacheTags.of(getName(), value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        var existing = delegate.putIfAbsent(key, value);
+        if(existing == null) {
+            tagIndex.register(getName(), key, CacheTags.of(getName(), value));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        tagIndex.unregister(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        var evicted = delegate.evictIfPresent(key);
+        tagIndex.unregister(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        tagIndex.unregisterAll(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        var invalidated = delegate.invalidate();
+        tagIndex.unregisterAll(getName());
+        return invalidated;
+    }
+}
@@ -0,0 +1,22 @@
+package dk.emilvn.exam.cache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Spring Boot only recognises the Caffeine caches themselves, so this unwraps {@link TaggedCache} to report
+ * hits, misses and evictions per cache name.
+ */
+public class TaggedCacheMeterBinderProvider implements CacheMeterBinderProvider<TaggedCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TaggedCache cache, Iterable<Tag> tags) {
+        if(cache.getDelegate() instanceof CaffeineCache caffeineCache) {
+            return new CaffeineCacheMetrics<>(caffeineCache.getNativeCache(), cache.getName(), tags);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package dk.emilvn.exam.columnar;
+
+import dk.emilvn.exam.result.Result;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+
+import java.util.stream.Stream;
+
+public interface ResultColumnRepository extends Repository<Result, Long> {
+    long count();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new dk.emilvn.exam.columnar.ResultColumnRow(r.id, r.result, r.date, p.id, r.discipline.id, p.isMale, p.club) from Result r join r.participant p order by r.id")
+    Stream<ResultColumnRow> streamAllRows();
+}
@@ -0,0 +1,6 @@
+package dk.emilvn.exam.columnar;
+
+import java.time.LocalDate;
+
+public record ResultColumnRow(Long id, int result, LocalDate date, Long participantId, Long disciplineId, boolean isMale, String club) {
+}
@@ -0,0 +1,314 @@
+package dk.emilvn.exam.columnar;
+
+import dk.emilvn.exam.result.ResultDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Every result as fixed-width columns in direct ByteBuffers, outside the Java heap: id, result, epoch day,
+ * participant id, discipline id, dictionary-encoded club and a flag byte holding gender and liveness.
+ * A row costs 29 bytes plus 24 bytes of id index, and scans allocate nothing but their output,
+ * so millions of rows add no GC pressure. Deleted rows are only flagged and are dropped when the columns next grow.
+ */
+@Component
+public class ResultColumnStore implements MeterBinder {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte LIVE = 1;
+    private static final byte MALE = 2;
+    private static final int NO_CLUB = -1;
+
+    private final ResultColumnRepository resultColumnRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<String> clubNames = new ArrayList<>();
+    private final Map<String, Integer> clubCodes = new HashMap<>();
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    private int liveCount;
+    private volatile long generation;
+
+    public ResultColumnStore(ResultColumnRepository resultColumnRepository) {
+        this.resultColumnRepository = resultColumnRepository;
+    }
+
+    // Runs once the seeders are done; writes that bypass ResultService (bulk loading, repository calls) need another reload
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            clubNames.clear();
+            clubCodes.clear();
+            var expected = resultColumnRepository.count();
+            columns = new Columns(Math.toIntExact(Math.max(INITIAL_CAPACITY, expected + expected / 8)));
+            liveCount = 0;
+            try (var rows = resultColumnRepository.streamAllRows()) {
+                rows.forEach(row -> putRow(row.id(), row.result(), row.date(), row.participantId(), row.disciplineId(), row.isMale(), row.club()));
+            }
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(ResultDTO result, boolean isMale, String club) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                putRow(result.id(), result.result(), result.date(), result.participantId(), result.disciplineId(), isMale, club);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long resultId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                int row = columns.index.get(resultId);
+                if(row >= 0 && (columns.flags.get(row) & LIVE) != 0) {
+                    columns.flags.put(row, (byte) (columns.flags.get(row) & ~LIVE));
+                    liveCount--;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Gender and club are copied into every row of the participant, so a change to either rewrites them in one scan
+    public void updateParticipant(Long participantId, boolean isMale, String club) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                int participant = Math.toIntExact(participantId);
+                int clubCode = encodeClub(club);
+                var current = columns;
+                for(int row = 0; row < current.size; row++) {
+                    if(current.participantIds.getInt(row * Integer.BYTES) == participant) {
+                        current.clubs.putInt(row * Integer.BYTES, clubCode);
+                        current.flags.put(row, flags(current.flags.get(row) & LIVE, isMale));
+                    }
+                }
+                generation++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Results of a discipline matching the optional filters, with dates from inclusive to exclusive.
+     * The returned array is a copy the caller may reorder.
+     */
+    public int[] selectResults(Long disciplineId, Boolean isMale, String club, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            int clubCode = NO_CLUB;
+            if(club != null) {
+                var code = clubCodes.get(club);
+                if(code == null) {
+                    return new int[0];
+                }
+                clubCode = code;
+            }
+            int discipline = Math.toIntExact(disciplineId);
+            int fromDay = from == null ? Integer.MIN_VALUE : Math.toIntExact(from.toEpochDay());
+            int toDay = to == null ? Integer.MAX_VALUE : Math.toIntExact(to.toEpochDay());
+            byte flagMask = isMale == null ? LIVE : LIVE | MALE;
+            byte flagValue = isMale == null ? LIVE : flags(LIVE, isMale);
+
+            // Counted first so the output is allocated once at its exact size
+            var current = columns;
+            int count = 0;
+            for(int row = 0; row < current.size; row++) {
+                if(matches(current, row, discipline, clubCode, fromDay, toDay, flagMask, flagValue)) {
+                    count++;
+                }
+            }
+            var results = new int[count];
+            int next = 0;
+            for(int row = 0; next < count; row++) {
+                if(matches(current, row, discipline, clubCode, fromDay, toDay, flagMask, flagValue)) {
+                    results[next++] = current.results.getInt(row * Integer.BYTES);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Incremented by every reload and participant write, which can change any row, so readers caching scans know to drop them
+    public long getGeneration() {
+        return generation;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return columns.bytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("results.columnar.rows", this, ResultColumnStore::size)
+                .description("Live rows in the off-heap result columns")
+                .register(registry);
+        Gauge.builder("results.columnar.bytes", this, ResultColumnStore::offHeapBytes)
+                .description("Direct memory held by the result columns and their id index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private boolean matches(Columns columns, int row, int discipline, int clubCode, int fromDay, int toDay, byte flagMask, byte flagValue) {
+        if(columns.disciplineIds.getInt(row * Integer.BYTES) != discipline || (columns.flags.get(row) & flagMask) != flagValue) {
+            return false;
+        }
+        if(clubCode != NO_CLUB && columns.clubs.getInt(row * Integer.BYTES) != clubCode) {
+            return false;
+        }
+        int epochDay = columns.epochDays.getInt(row * Integer.BYTES);
+        return epochDay >= fromDay && epochDay < toDay;
+    }
+
+    private void putRow(Long id, int result, LocalDate date, Long participantId, Long disciplineId, boolean isMale, String club) {
+        int row = columns.index.get(id);
+        if(row < 0) {
+            if(columns.size == columns.capacity) {
+                columns = resize(columns);
+            }
+            row = columns.size++;
+            columns.index.put(id, row);
+            liveCount++;
+        } else if((columns.flags.get(row) & LIVE) == 0) {
+            liveCount++;
+        }
+        columns.write(row, id, result, Math.toIntExact(date.toEpochDay()), Math.toIntExact(participantId), Math.toIntExact(disciplineId), encodeClub(club), flags(LIVE, isMale));
+    }
+
+    // Compacts in place when at least a quarter of the rows are deleted, otherwise doubles the capacity
+    private Columns resize(Columns full) {
+        int deleted = full.size - liveCount;
+        var resized = new Columns(deleted >= full.capacity / 4 ? full.capacity : full.capacity * 2);
+        for(int row = 0; row < full.size; row++) {
+            if((full.flags.get(row) & LIVE) != 0) {
+                int target = resized.size++;
+                resized.copyRow(full, row, target);
+                resized.index.put(full.ids.getLong(row * Long.BYTES), target);
+            }
+        }
+        return resized;
+    }
+
+    private int encodeClub(String club) {
+        if(club == null) {
+            return NO_CLUB;
+        }
+        return clubCodes.computeIfAbsent(club, name -> {
+            clubNames.add(name);
+            return clubNames.size() - 1;
+        });
+    }
+
+    private static byte flags(int live, boolean isMale) {
+        return (byte) (live | (isMale ? MALE : 0));
+    }
+
+    // Like the other in-memory read models, a write inside a transaction only shows up once it has committed
+    private static void afterCommit(Runnable action) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Columns {
+        final int capacity;
+        final ByteBuffer ids;
+        final ByteBuffer results;
+        final ByteBuffer epochDays;
+        final ByteBuffer participantIds;
+        final ByteBuffer disciplineIds;
+        final ByteBuffer clubs;
+        final ByteBuffer flags;
+        final ResultIdIndex index;
+        int size;
+
+        Columns(int capacity) {
+            this.capacity = capacity;
+            ids = allocate(capacity, Long.BYTES);
+            results = allocate(capacity, Integer.BYTES);
+            epochDays = allocate(capacity, Integer.BYTES);
+            participantIds = allocate(capacity, Integer.BYTES);
+            disciplineIds = allocate(capacity, Integer.BYTES);
+            clubs = allocate(capacity, Integer.BYTES);
+            flags = allocate(capacity, Byte.BYTES);
+            index = new ResultIdIndex(capacity);
+        }
+
+        void write(int row, long id, int result, int epochDay, int participantId, int disciplineId, int club, byte flag) {
+            ids.putLong(row * Long.BYTES, id);
+            results.putInt(row * Integer.BYTES, result);
+            epochDays.putInt(row * Integer.BYTES, epochDay);
+            participantIds.putInt(row * Integer.BYTES, participantId);
+            disciplineIds.putInt(row * Integer.BYTES, disciplineId);
+            clubs.putInt(row * Integer.BYTES, club);
+            flags.put(row, flag);
+        }
+
+        void copyRow(Columns source, int sourceRow, int row) {
+            write(row,
+                    source.ids.getLong(sourceRow * Long.BYTES),
+                    source.results.getInt(sourceRow * Integer.BYTES),
+                    source.epochDays.getInt(sourceRow * Integer.BYTES),
+                    source.participantIds.getInt(sourceRow * Integer.BYTES),
+                    source.disciplineIds.getInt(sourceRow * Integer.BYTES),
+                    source.clubs.getInt(sourceRow * Integer.BYTES),
+                    source.flags.get(sourceRow));
+        }
+
+        long bytes() {
+            return (long) ids.capacity() + results.capacity() + epochDays.capacity() + participantIds.capacity()
+                    + disciplineIds.capacity() + clubs.capacity() + flags.capacity() + index.bytes();
+        }
+
+        private static ByteBuffer allocate(int capacity, int width) {
+            return ByteBuffer.allocateDirect(capacity * width).order(ByteOrder.nativeOrder());
+        }
+    }
+}
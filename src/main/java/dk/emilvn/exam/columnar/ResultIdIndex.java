@@ -0,0 +1,57 @@
+package dk.emilvn.exam.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Open-addressing hash from result id to row number, stored off-heap next to the columns.
+ * Ids are never reused, so entries are only added; the index is rebuilt whenever the columns are.
+ */
+final class ResultIdIndex {
+    private static final long EMPTY = 0L;
+
+    private final ByteBuffer keys;
+    private final ByteBuffer rows;
+    private final int mask;
+
+    // Keeps the load factor at or below one half for the given number of rows
+    ResultIdIndex(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        this.keys = ByteBuffer.allocateDirect(slots * Long.BYTES).order(ByteOrder.nativeOrder());
+        this.rows = ByteBuffer.allocateDirect(slots * Integer.BYTES).order(ByteOrder.nativeOrder());
+        this.mask = slots - 1;
+    }
+
+    int get(long id) {
+        for(int slot = slot(id); ; slot = (slot + 1) & mask) {
+            long key = keys.getLong(slot * Long.BYTES);
+            if(key == id) {
+                return rows.getInt(slot * Integer.BYTES);
+            }
+            if(key == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    void put(long id, int row) {
+        if(id == EMPTY) {
+            throw new IllegalArgumentException("Result id must not be 0");
+        }
+        int slot = slot(id);
+        while(keys.getLong(slot * Long.BYTES) != EMPTY && keys.getLong(slot * Long.BYTES) != id) {
+            slot = (slot + 1) & mask;
+        }
+        keys.putLong(slot * Long.BYTES, id);
+        rows.putInt(slot * Integer.BYTES, row);
+    }
+
+    long bytes() {
+        return (long) keys.capacity() + rows.capacity();
+    }
+
+    // Sequential ids would cluster in neighbouring slots, so they are spread with a multiplicative hash
+    private int slot(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
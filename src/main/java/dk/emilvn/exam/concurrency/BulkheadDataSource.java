@@ -0,0 +1,138 @@
+package dk.emilvn.exam.concurrency;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many threads may hold or wait for a pooled connection at once. With virtual threads every request
+ * gets its own thread, so without this thousands of them would pile up inside the pool's own wait queue.
+ * A permit is taken before asking the pool and released when the connection is closed.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+
+    private final LongAdder acquiredCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalPoolWaitNanos = new LongAdder();
+    private final LongAccumulator maxPoolWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public BulkheadDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout) {
+        super(targetDataSource);
+        if(maxConcurrent < 1) {
+            throw new IllegalArgumentException("Bulkhead must allow at least one connection");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return acquire(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return acquire(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public BulkheadStatsDTO getStats() {
+        var acquired = acquiredCount.sum();
+        return new BulkheadStatsDTO(
+                maxConcurrent,
+                permits.availablePermits(),
+                permits.getQueueLength(),
+                acquired,
+                rejectedCount.sum(),
+                averageMillis(totalQueueNanos.sum(), acquired),
+                maxQueueNanos.get() / 1_000_000.0,
+                averageMillis(totalPoolWaitNanos.sum(), acquired),
+                maxPoolWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    private Connection acquire(ConnectionSupplier supplier) throws SQLException {
+        var queuedAt = System.nanoTime();
+        try {
+            if(!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejectedCount.increment();
+                throw new SQLTransientConnectionException("Database bulkhead full after " + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms");
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for database bulkhead", e);
+        }
+        var permittedAt = System.nanoTime();
+        record(totalQueueNanos, maxQueueNanos, permittedAt - queuedAt);
+
+        try {
+            var connection = supplier.get();
+            record(totalPoolWaitNanos, maxPoolWaitNanos, System.nanoTime() - permittedAt);
+            acquiredCount.increment();
+            return releaseOnClose(connection);
+        } catch(SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection releaseOnClose(Connection target) {
+        var released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch(method.getName()) {
+                    case "getTargetConnection" -> target;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            target.close();
+                        } finally {
+                            if(released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(target, args);
+                        } catch(InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    private static void record(LongAdder total, LongAccumulator max, long nanos) {
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0 : totalNanos / (count * 1_000_000.0);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
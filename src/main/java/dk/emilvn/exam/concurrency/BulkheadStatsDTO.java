@@ -0,0 +1,14 @@
+package dk.emilvn.exam.concurrency;
+
+public record BulkheadStatsDTO(
+        int maxConcurrent,
+        int availablePermits,
+        int queueLength,
+        long acquiredCount,
+        long rejectedCount,
+        double averageQueueMillis,
+        double maxQueueMillis,
+        double averagePoolWaitMillis,
+        double maxPoolWaitMillis
+) {
+}
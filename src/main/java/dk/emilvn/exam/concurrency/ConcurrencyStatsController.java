@@ -0,0 +1,21 @@
+package dk.emilvn.exam.concurrency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConcurrencyStatsController {
+    private final ConcurrencyStatsService concurrencyStatsService;
+
+    public ConcurrencyStatsController(ConcurrencyStatsService concurrencyStatsService) {
+        this.concurrencyStatsService = concurrencyStatsService;
+    }
+
+    @GetMapping("/concurrency")
+    public ResponseEntity<ConcurrencyStatsDTO> getStats() {
+        return ResponseEntity.ok(concurrencyStatsService.getStats());
+    }
+}
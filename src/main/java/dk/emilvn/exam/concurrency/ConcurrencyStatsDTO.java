@@ -0,0 +1,7 @@
+package dk.emilvn.exam.concurrency;
+
+public record ConcurrencyStatsDTO(
+        BulkheadStatsDTO bulkhead,
+        PinnedThreadStatsDTO pinnedThreads
+) {
+}
@@ -0,0 +1,25 @@
+package dk.emilvn.exam.concurrency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+
+@Service
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConcurrencyStatsService {
+    private final BulkheadDataSource bulkheadDataSource;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    public ConcurrencyStatsService(DataSource dataSource, VirtualThreadPinningMonitor pinningMonitor) {
+        if(!(dataSource instanceof BulkheadDataSource bulkhead)) {
+            throw new IllegalStateException("Virtual threads are enabled but the DataSource has no bulkhead");
+        }
+        this.bulkheadDataSource = bulkhead;
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    public ConcurrencyStatsDTO getStats() {
+        return new ConcurrencyStatsDTO(bulkheadDataSource.getStats(), pinningMonitor.getStats());
+    }
+}
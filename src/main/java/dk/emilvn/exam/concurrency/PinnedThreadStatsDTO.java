@@ -0,0 +1,9 @@
+package dk.emilvn.exam.concurrency;
+
+public record PinnedThreadStatsDTO(
+        long pinnedCount,
+        double totalPinnedMillis,
+        double maxPinnedMillis,
+        String lastPinnedFrame
+) {
+}
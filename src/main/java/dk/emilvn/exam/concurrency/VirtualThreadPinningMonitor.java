@@ -0,0 +1,73 @@
+package dk.emilvn.exam.concurrency;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts jdk.VirtualThreadPinned events from an in-process JFR stream. A virtual thread is pinned when it
+ * blocks inside a synchronized block or native frame, which holds its carrier thread for the whole wait.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final LongAdder pinnedCount = new LongAdder();
+    private final LongAdder totalPinnedNanos = new LongAdder();
+    private final LongAccumulator maxPinnedNanos = new LongAccumulator(Math::max, 0);
+    private volatile String lastPinnedFrame;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void start() {
+        if(recordingStream != null) {
+            return;
+        }
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if(recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    public PinnedThreadStatsDTO getStats() {
+        return new PinnedThreadStatsDTO(
+                pinnedCount.sum(),
+                totalPinnedNanos.sum() / 1_000_000.0,
+                maxPinnedNanos.get() / 1_000_000.0,
+                lastPinnedFrame
+        );
+    }
+
+    private void onPinned(RecordedEvent event) {
+        var nanos = event.getDuration().toNanos();
+        pinnedCount.increment();
+        totalPinnedNanos.add(nanos);
+        maxPinnedNanos.accumulate(nanos);
+        var stackTrace = event.getStackTrace();
+        if(stackTrace != null && !stackTrace.getFrames().isEmpty()) {
+            var frame = stackTrace.getFrames().getFirst();
+            lastPinnedFrame = frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+        }
+    }
+}
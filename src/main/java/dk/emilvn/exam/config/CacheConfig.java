@@ -1,22 +1,85 @@
 package dk.emilvn.exam.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dk.emilvn.exam.cache.CacheInvalidator;
+import dk.emilvn.exam.cache.CacheTagIndex;
+import dk.emilvn.exam.cache.CachedJson;
+import dk.emilvn.exam.cache.JsonResponseCache;
+import dk.emilvn.exam.cache.TaggedCache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
+    private static final long DEFAULT_MAXIMUM_WEIGHT = 10_000;
+    private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    private final Environment environment;
+
+    public CacheConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean
+    public CacheTagIndex cacheTagIndex() {
+        return new CacheTagIndex();
+    }
+
+    @Bean
+    public CacheManager cacheManager(CacheTagIndex cacheTagIndex) {
+        var cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(Arrays.stream(getCacheNames())
+                .map(cacheName -> new TaggedCache(buildCache(cacheName, cacheTagIndex), cacheTagIndex))
+                .toList());
+        return cacheManager;
+    }
 
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(getCacheNames());
+    public CacheInvalidator cacheInvalidator(CacheManager cacheManager, CacheTagIndex cacheTagIndex) {
+        return new CacheInvalidator(cacheManager, cacheTagIndex);
+    }
+
+    // Caffeine evicts by W-TinyLFU, so one-off keys from crawlers walking page sizes don't push out hot entries
+    private CaffeineCache buildCache(String cacheName, CacheTagIndex cacheTagIndex) {
+        var nativeCache = Caffeine.newBuilder()
+                .maximumWeight(getProperty(cacheName, "maximum-weight", Long.class, DEFAULT_MAXIMUM_WEIGHT))
+                .weigher(CacheConfig::weigh)
+                .expireAfterWrite(getProperty(cacheName, "expire-after-write", Duration.class, DEFAULT_EXPIRE_AFTER_WRITE))
+                .evictionListener((key, value, cause) -> cacheTagIndex.unregister(cacheName, key))
+                .recordStats()
+                .build();
+        return new CaffeineCache(cacheName, nativeCache);
+    }
+
+    // A cached list costs one unit per element, so a findAll page counts for as much as its entries.
+    // Encoded JSON costs one unit per KiB of uncompressed body.
+    private static int weigh(Object key, Object value) {
+        if(value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if(value instanceof CachedJson json) {
+            return Math.max(1, json.body().length / 1024);
+        }
+        return 1;
+    }
+
+    private <T> T getProperty(String cacheName, String property, Class<T> type, T defaultValue) {
+        var fallback = environment.getProperty("app.cache." + property, type, defaultValue);
+        return environment.getProperty("app.cache." + cacheName + "." + property, type, fallback);
     }
 
     private String[] getCacheNames() {
-        return new String[]{"participantCache", "disciplineCache", "resultCache"};
+        return new String[]{"participantCache", "disciplineCache", "resultCache", JsonResponseCache.CACHE_NAME};
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package dk.emilvn.exam.config;
+
+import dk.emilvn.exam.concurrency.BulkheadDataSource;
+import dk.emilvn.exam.concurrency.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Opt-in with spring.threads.virtual.enabled=true, which also moves Tomcat's request handling onto virtual threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConcurrencyConfig {
+    private static final int DEFAULT_MAX_CONCURRENT = 10;
+    private static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(
+                            dataSource,
+                            environment.getProperty("app.datasource.bulkhead.max-concurrent", Integer.class, DEFAULT_MAX_CONCURRENT),
+                            environment.getProperty("app.datasource.bulkhead.acquire-timeout", Duration.class, DEFAULT_ACQUIRE_TIMEOUT)
+                    );
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(Environment environment) {
+        return new VirtualThreadPinningMonitor(environment.getProperty("app.concurrency.pinned-threshold", Duration.class, DEFAULT_PINNED_THRESHOLD));
+    }
+}
@@ -11,13 +11,15 @@ import dk.emilvn.exam.result.ResultRepository;
 import dk.emilvn.exam.result.ResultService;
 import dk.emilvn.exam.result.ResultType;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 
 @Component
-@Profile("!test")
+@Profile("!test & !benchmark")
+@ConditionalOnProperty(name = "app.seed.mode", havingValue = "sample", matchIfMissing = true)
 public class InitData implements CommandLineRunner {
 
     private final ParticipantService participantService;
@@ -0,0 +1,38 @@
+package dk.emilvn.exam.config;
+
+import dk.emilvn.exam.cache.TaggedCacheMeterBinderProvider;
+import dk.emilvn.exam.metrics.RequestStatementCounter;
+import dk.emilvn.exam.metrics.RequestStatementMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Endpoint latency and Hikari pool metrics come from Spring Boot; this adds the cache and per-request statement metrics.
+ * Percentiles and the Prometheus endpoint are configured under management.* in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TaggedCacheMeterBinderProvider taggedCacheMeterBinderProvider() {
+        return new TaggedCacheMeterBinderProvider();
+    }
+
+    @Bean
+    public RequestStatementCounter requestStatementCounter() {
+        return new RequestStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(RequestStatementCounter requestStatementCounter) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, requestStatementCounter);
+    }
+
+    @Bean
+    public RequestStatementMetricsFilter requestStatementMetricsFilter(RequestStatementCounter requestStatementCounter, MeterRegistry meterRegistry) {
+        return new RequestStatementMetricsFilter(requestStatementCounter, meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package dk.emilvn.exam.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Backs the /reactive read endpoints. The pool is kept out of the context on purpose, see ExamApplication.
+ */
+@Configuration
+public class R2dbcConfig implements DisposableBean {
+    private static final int DEFAULT_POOL_MAX_SIZE = 10;
+
+    private final Environment environment;
+    private ConnectionPool connectionPool;
+
+    public R2dbcConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        var options = ConnectionFactoryOptions.parse(environment.getRequiredProperty("app.r2dbc.url"))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, environment.getProperty("app.r2dbc.username", ""))
+                .option(ConnectionFactoryOptions.PASSWORD, environment.getProperty("app.r2dbc.password", ""))
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(environment.getProperty("app.r2dbc.pool.max-size", Integer.class, DEFAULT_POOL_MAX_SIZE))
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if(connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
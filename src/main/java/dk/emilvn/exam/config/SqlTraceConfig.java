@@ -0,0 +1,66 @@
+package dk.emilvn.exam.config;
+
+import dk.emilvn.exam.sql.SqlTraceFilter;
+import dk.emilvn.exam.sql.SqlTraceListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replaces spring.jpa.show-sql: statements are timed through a datasource-proxy wrapper and logged sampled and asynchronously.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.trace.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceConfig {
+    private static final double DEFAULT_SAMPLE_RATE = 0.0;
+    private static final Duration DEFAULT_SLOW_THRESHOLD = Duration.ofMillis(100);
+
+    @Bean
+    public SqlTraceListener sqlTraceListener(Environment environment) {
+        return new SqlTraceListener(
+                environment.getProperty("app.sql.trace.sample-rate", Double.class, DEFAULT_SAMPLE_RATE),
+                environment.getProperty("app.sql.trace.slow-threshold", Duration.class, DEFAULT_SLOW_THRESHOLD),
+                environment.getProperty("app.sql.trace.capture-parameters", Boolean.class, false)
+        );
+    }
+
+    @Bean
+    public SqlTraceFilter sqlTraceFilter(SqlTraceListener sqlTraceListener) {
+        return new SqlTraceFilter(sqlTraceListener);
+    }
+
+    @Bean
+    public static SqlTraceDataSourcePostProcessor sqlTraceDataSourcePostProcessor(ObjectProvider<SqlTraceListener> sqlTraceListener) {
+        return new SqlTraceDataSourcePostProcessor(sqlTraceListener);
+    }
+
+    // Ordered, so it wraps the pool before the unordered bulkhead post-processor does and the bulkhead stays outermost.
+    // The bean method declares this type rather than BeanPostProcessor, since post-processors are sorted by declared type.
+    // Looks the listener up lazily, since post-processors are created before regular beans.
+    record SqlTraceDataSourcePostProcessor(ObjectProvider<SqlTraceListener> sqlTraceListener) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if(bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(sqlTraceListener.getObject())
+                        .build();
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -1,26 +1,40 @@
 package dk.emilvn.exam.discipline;
 
+import dk.emilvn.exam.result.ResultType;
+import dk.emilvn.exam.version.AggregateVersions;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
 public class DisciplineController {
     private final DisciplineService disciplineService;
+    private final AggregateVersions aggregateVersions;
 
-    public DisciplineController(DisciplineService disciplineService) {
+    public DisciplineController(DisciplineService disciplineService, AggregateVersions aggregateVersions) {
         this.disciplineService = disciplineService;
+        this.aggregateVersions = aggregateVersions;
     }
 
     @GetMapping("/disciplines")
-    public ResponseEntity<List<DisciplineDTO>> getAll() {
+    public ResponseEntity<List<DisciplineDTO>> getAll(@RequestParam(required = false) ResultType resultType, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.disciplines())) {
+            return null;
+        }
+        if(resultType != null) {
+            return ResponseEntity.ok(disciplineService.findAllByResultType(resultType));
+        }
         return ResponseEntity.ok(disciplineService.findAll());
     }
 
     @GetMapping("/disciplines/{id}")
-    public ResponseEntity<DisciplineDTO> getById(@PathVariable Long id) {
+    public ResponseEntity<DisciplineDTO> getById(@PathVariable Long id, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.disciplines())) {
+            return null;
+        }
         return ResponseEntity.ok(disciplineService.findById(id));
     }
 
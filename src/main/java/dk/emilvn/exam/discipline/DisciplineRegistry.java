@@ -0,0 +1,127 @@
+package dk.emilvn.exam.discipline;
+
+import dk.emilvn.exam.result.ResultType;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Immutable snapshot of all disciplines, swapped whole on every write so reads never query or lock.
+// Writes that bypass DisciplineService (bulk seeding, snapshot restore, repository calls) must call reload() afterwards;
+// an unknown id is reported as missing without touching the database.
+@Component
+public class DisciplineRegistry implements InitializingBean {
+    private final DisciplineRepository disciplineRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    public DisciplineRegistry(DisciplineRepository disciplineRepository) {
+        this.disciplineRepository = disciplineRepository;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        reload();
+    }
+
+    public Optional<DisciplineDTO> findById(long id) {
+        return Optional.ofNullable(snapshot.get().findById(id));
+    }
+
+    // Like JpaRepository.findAllById, unknown ids are left out of the result
+    public List<DisciplineDTO> findAllById(Collection<Long> ids) {
+        return snapshot.get().findAllById(ids);
+    }
+
+    public List<DisciplineDTO> findAll() {
+        return List.of(snapshot.get().disciplines);
+    }
+
+    public List<DisciplineDTO> findAllByResultType(ResultType resultType) {
+        return snapshot.get().byResultType.getOrDefault(resultType, List.of());
+    }
+
+    public void put(DisciplineDTO discipline) {
+        snapshot.updateAndGet(current -> current.with(discipline));
+    }
+
+    public void remove(long id) {
+        snapshot.updateAndGet(current -> current.without(id));
+    }
+
+    public synchronized void reload() {
+        snapshot.set(Snapshot.of(disciplineRepository.findAll().stream()
+                .map(discipline -> new DisciplineDTO(discipline.getId(), discipline.getName(), discipline.getResultType()))
+                .toList()));
+    }
+
+    // Ids are kept sorted in a primitive array, with the disciplines in a parallel array, so lookups are a binary search without boxing
+    private static final class Snapshot {
+        static final Snapshot EMPTY = of(List.of());
+
+        final long[] ids;
+        final DisciplineDTO[] disciplines;
+        final Map<ResultType, List<DisciplineDTO>> byResultType;
+
+        private Snapshot(long[] ids, DisciplineDTO[] disciplines, Map<ResultType, List<DisciplineDTO>> byResultType) {
+            this.ids = ids;
+            this.disciplines = disciplines;
+            this.byResultType = byResultType;
+        }
+
+        static Snapshot of(Collection<DisciplineDTO> source) {
+            var disciplines = source.stream()
+                    .sorted(Comparator.comparingLong(DisciplineDTO::id))
+                    .toArray(DisciplineDTO[]::new);
+            var ids = new long[disciplines.length];
+            var grouped = new EnumMap<ResultType, List<DisciplineDTO>>(ResultType.class);
+            for(int i = 0; i < disciplines.length; i++) {
+                ids[i] = disciplines[i].id();
+                grouped.computeIfAbsent(disciplines[i].resultType(), type -> new ArrayList<>()).add(disciplines[i]);
+            }
+            var byResultType = new EnumMap<ResultType, List<DisciplineDTO>>(ResultType.class);
+            grouped.forEach((type, list) -> byResultType.put(type, List.copyOf(list)));
+            return new Snapshot(ids, disciplines, Collections.unmodifiableMap(byResultType));
+        }
+
+        DisciplineDTO findById(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? disciplines[index] : null;
+        }
+
+        List<DisciplineDTO> findAllById(Collection<Long> ids) {
+            var found = new ArrayList<DisciplineDTO>(ids.size());
+            for(Long id : ids) {
+                var discipline = findById(id);
+                if(discipline != null) {
+                    found.add(discipline);
+                }
+            }
+            return found;
+        }
+
+        Snapshot with(DisciplineDTO discipline) {
+            var copy = new ArrayList<DisciplineDTO>(disciplines.length + 1);
+            for(DisciplineDTO existing : disciplines) {
+                if(!existing.id().equals(discipline.id())) {
+                    copy.add(existing);
+                }
+            }
+            copy.add(discipline);
+            return of(copy);
+        }
+
+        Snapshot without(long id) {
+            if(findById(id) == null) {
+                return this;
+            }
+            var copy = new ArrayList<DisciplineDTO>(disciplines.length);
+            for(DisciplineDTO existing : disciplines) {
+                if(existing.id() != id) {
+                    copy.add(existing);
+                }
+            }
+            return of(copy);
+        }
+    }
+}
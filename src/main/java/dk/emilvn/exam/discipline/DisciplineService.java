@@ -1,20 +1,31 @@
 package dk.emilvn.exam.discipline;
 
+import dk.emilvn.exam.cache.CacheInvalidator;
+import dk.emilvn.exam.cache.CacheTags;
 import dk.emilvn.exam.error.NotFoundException;
+import dk.emilvn.exam.result.ResultType;
+import dk.emilvn.exam.version.AggregateVersions;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
 public class DisciplineService {
     private final String cacheName = "disciplineCache";
     private final DisciplineRepository disciplineRepository;
+    private final CacheInvalidator cacheInvalidator;
+    private final DisciplineRegistry disciplineRegistry;
+    private final AggregateVersions aggregateVersions;
 
-    public DisciplineService(DisciplineRepository disciplineRepository) {
+    public DisciplineService(DisciplineRepository disciplineRepository, CacheInvalidator cacheInvalidator, DisciplineRegistry disciplineRegistry, AggregateVersions aggregateVersions) {
         this.disciplineRepository = disciplineRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.disciplineRegistry = disciplineRegistry;
+        this.aggregateVersions = aggregateVersions;
     }
 
     public DisciplineDTO toDTO(Discipline discipline) {
@@ -40,35 +51,56 @@ public class DisciplineService {
                 .toList();
     }
 
+    public List<DisciplineDTO> findAllByResultType(ResultType resultType) {
+        return disciplineRegistry.findAllByResultType(resultType);
+    }
+
+    // Served from the registry snapshot, so result and participant writes don't pay a query for the discipline
     public DisciplineDTO findById(Long id) {
-        return disciplineRepository.findById(id)
-                .map(this::toDTO)
+        return disciplineRegistry.findById(id)
                 .orElseThrow(() -> new NotFoundException("Discipline not found"));
     }
 
+    // Returned entities are detached references, only fit for associating with other entities
+    public List<Discipline> findEntitiesByIds(Collection<Long> ids) {
+        return disciplineRegistry.findAllById(ids).stream()
+                .map(this::fromDTO)
+                .toList();
+    }
+
     @CachePut(value = cacheName, key = "#result.id")
     @CacheEvict(value = cacheName, key = "'findAll'", beforeInvocation = true)
     public DisciplineDTO create(DisciplineDTO disciplineDTO) {
         var discipline = fromDTO(disciplineDTO);
-        return toDTO(disciplineRepository.save(discipline));
+        var created = toDTO(disciplineRepository.save(discipline));
+        disciplineRegistry.put(created);
+        aggregateVersions.bump(AggregateVersions.disciplines());
+        return created;
     }
 
     @CachePut(value = cacheName, key = "#id")
     @CacheEvict(value = cacheName, key = "'findAll'", beforeInvocation = true)
     public DisciplineDTO update(Long id, DisciplineDTO disciplineDTO) {
+        cacheInvalidator.evictTags(CacheTags.discipline(id));
         var discipline = disciplineRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Discipline not found"));
 
         discipline.setName(disciplineDTO.name());
         discipline.setResultType(disciplineDTO.resultType());
 
-        return toDTO(disciplineRepository.save(discipline));
+        var updated = toDTO(disciplineRepository.save(discipline));
+        disciplineRegistry.put(updated);
+        aggregateVersions.bump(AggregateVersions.disciplines());
+        return updated;
     }
 
-    @CacheEvict(value = cacheName, allEntries = true)
+    // Also evicts cached results in the discipline, not just disciplineCache
     public void delete(Long id) {
         if(disciplineRepository.existsById(id)) {
             disciplineRepository.deleteById(id);
+            disciplineRegistry.remove(id);
+            aggregateVersions.bump(AggregateVersions.disciplines());
+            cacheInvalidator.evictTags(CacheTags.discipline(id), CacheTags.lists(cacheName));
         } else {
             throw new NotFoundException("Discipline not found");
         }
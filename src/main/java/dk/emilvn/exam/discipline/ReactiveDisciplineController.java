@@ -0,0 +1,29 @@
+package dk.emilvn.exam.discipline;
+
+import dk.emilvn.exam.error.NotFoundException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class ReactiveDisciplineController {
+    private final ReactiveDisciplineRepository reactiveDisciplineRepository;
+
+    public ReactiveDisciplineController(ReactiveDisciplineRepository reactiveDisciplineRepository) {
+        this.reactiveDisciplineRepository = reactiveDisciplineRepository;
+    }
+
+    @GetMapping(value = "/reactive/disciplines", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<DisciplineDTO> getAll() {
+        return reactiveDisciplineRepository.findAll();
+    }
+
+    @GetMapping("/reactive/disciplines/{id}")
+    public Mono<DisciplineDTO> getById(@PathVariable Long id) {
+        return reactiveDisciplineRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Discipline not found")));
+    }
+}
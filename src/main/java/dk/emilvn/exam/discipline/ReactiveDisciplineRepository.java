@@ -0,0 +1,40 @@
+package dk.emilvn.exam.discipline;
+
+import dk.emilvn.exam.result.ResultType;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class ReactiveDisciplineRepository {
+    private static final String SELECT = "select id, name, result_type from discipline";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveDisciplineRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<DisciplineDTO> findAll() {
+        return databaseClient.sql(SELECT + " order by id")
+                .map(ReactiveDisciplineRepository::toDTO)
+                .all();
+    }
+
+    public Mono<DisciplineDTO> findById(Long id) {
+        return databaseClient.sql(SELECT + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveDisciplineRepository::toDTO)
+                .one();
+    }
+
+    private static DisciplineDTO toDTO(Readable row) {
+        return new DisciplineDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                ResultType.valueOf(row.get("result_type", String.class))
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package dk.emilvn.exam.error;
+
+public class ServiceUnavailableException extends RuntimeException{
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,71 @@
+package dk.emilvn.exam.leaderboard;
+
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ranking of the results in a single discipline, kept sorted best-first.
+ * Writes are serialized per leaderboard, reads walk the skip list without locking.
+ */
+public class Leaderboard {
+    private final ResultType resultType;
+    private final NavigableSet<ResultDTO> ranking;
+    private final Map<Long, ResultDTO> resultsById = new ConcurrentHashMap<>();
+
+    public Leaderboard(ResultType resultType) {
+        this.resultType = resultType;
+        Comparator<ResultDTO> byPerformance = (a, b) -> resultType.compare(a.result(), b.result());
+        this.ranking = new ConcurrentSkipListSet<>(byPerformance.thenComparing(ResultDTO::id));
+    }
+
+    public ResultType getResultType() {
+        return resultType;
+    }
+
+    public synchronized void put(ResultDTO result) {
+        var previous = resultsById.put(result.id(), result);
+        if(previous != null) {
+            ranking.remove(previous);
+        }
+        ranking.add(result);
+    }
+
+    public synchronized void remove(Long resultId) {
+        var previous = resultsById.remove(resultId);
+        if(previous != null) {
+            ranking.remove(previous);
+        }
+    }
+
+    public int size() {
+        return resultsById.size();
+    }
+
+    public List<LeaderboardEntryDTO> top(int limit) {
+        var entries = new ArrayList<LeaderboardEntryDTO>(Math.min(limit, size()));
+        int position = 0;
+        int rank = 0;
+        int previousResult = 0;
+        for(var result : ranking) {
+            if(position == limit) {
+                break;
+            }
+            position++;
+            // Tied results share the rank of the first of them
+            if(position == 1 || previousResult != result.result()) {
+                rank = position;
+                previousResult = result.result();
+            }
+            entries.add(new LeaderboardEntryDTO(rank, result.id(), result.participantId(), result.result(), result.date()));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,23 @@
+package dk.emilvn.exam.leaderboard;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @GetMapping("/disciplines/{id}/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(@PathVariable Long id, @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(leaderboardService.getTop(id, limit));
+    }
+}
@@ -0,0 +1,6 @@
+package dk.emilvn.exam.leaderboard;
+
+import java.time.LocalDate;
+
+public record LeaderboardEntryDTO(int rank, Long resultId, Long participantId, int result, LocalDate date) {
+}
@@ -0,0 +1,87 @@
+package dk.emilvn.exam.leaderboard;
+
+import dk.emilvn.exam.discipline.DisciplineService;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class LeaderboardService {
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final Map<Long, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+    private final ResultRepository resultRepository;
+    private final DisciplineService disciplineService;
+
+    public LeaderboardService(ResultRepository resultRepository, DisciplineService disciplineService) {
+        this.resultRepository = resultRepository;
+        this.disciplineService = disciplineService;
+    }
+
+    public List<LeaderboardEntryDTO> getTop(Long disciplineId, Integer limit) {
+        if(limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return getLeaderboard(disciplineId).top(limit == null ? DEFAULT_LIMIT : limit);
+    }
+
+    // Leaderboards are loaded from the database the first time they are read and kept up to date from then on.
+    // Loads run inside the map's compute, so a write arriving meanwhile waits for the load instead of missing it.
+    private Leaderboard getLeaderboard(Long disciplineId) {
+        var resultType = disciplineService.findById(disciplineId).resultType();
+        var leaderboard = leaderboards.get(disciplineId);
+        if(leaderboard != null && leaderboard.getResultType() == resultType) {
+            return leaderboard;
+        }
+        return leaderboards.compute(disciplineId, (id, current) ->
+                current == null || current.getResultType() != resultType ? load(id) : current);
+    }
+
+    private Leaderboard load(Long disciplineId) {
+        var discipline = disciplineService.findById(disciplineId);
+        var leaderboard = new Leaderboard(discipline.resultType());
+        resultRepository.findAllAsDTOByDisciplineId(disciplineId).forEach(leaderboard::put);
+        return leaderboard;
+    }
+
+    // Called by ResultService for every write, with previous null for a new result and current null for a deleted one
+    public void update(ResultDTO previous, ResultDTO current) {
+        afterCommit(() -> apply(previous, current));
+    }
+
+    // Only the leaderboards of the old and new discipline are touched, through computeIfPresent so neither is mid-load
+    private void apply(ResultDTO previous, ResultDTO current) {
+        if(previous != null && (current == null || !previous.disciplineId().equals(current.disciplineId()))) {
+            leaderboards.computeIfPresent(previous.disciplineId(), (disciplineId, leaderboard) -> {
+                leaderboard.remove(previous.id());
+                return leaderboard;
+            });
+        }
+        if(current != null) {
+            leaderboards.computeIfPresent(current.disciplineId(), (disciplineId, leaderboard) -> {
+                leaderboard.put(current);
+                return leaderboard;
+            });
+        }
+    }
+
+    // Inside a transaction the change waits for the commit, so a rolled-back batch leaves no phantom entries
+    private static void afterCommit(Runnable action) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dk.emilvn.exam.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between start() and stop().
+ */
+public class RequestStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        var count = COUNT.get();
+        if(count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        COUNT.set(new int[1]);
+    }
+
+    public int stop() {
+        var count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
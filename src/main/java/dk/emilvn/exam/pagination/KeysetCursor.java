@@ -0,0 +1,38 @@
+package dk.emilvn.exam.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque cursor holding the sort key of the last row of a page.
+ * Clients pass it back unchanged as {@code after} to get the following page.
+ */
+public final class KeysetCursor {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(long... values) {
+        var joined = Arrays.stream(values)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(":"));
+        return ENCODER.encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long[] decode(String cursor, int length) {
+        try {
+            var parts = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split(":");
+            if(parts.length != length) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Arrays.stream(parts).mapToLong(Long::parseLong).toArray();
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dk.emilvn.exam.pagination;
+
+import java.util.List;
+
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_SIZE = 20;
+
+    public static int validatePageSize(Integer size) {
+        if(size == null) {
+            return DEFAULT_SIZE;
+        }
+        if(size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        return size;
+    }
+}
@@ -0,0 +1,43 @@
+package dk.emilvn.exam.participant;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+public enum AgeGroup {
+    CHILD(0, 9),
+    YOUTH(10, 13),
+    JUNIOR(14, 22),
+    ADULT(23, 40),
+    SENIOR(41, Integer.MAX_VALUE);
+
+    private final int minAge;
+    private final int maxAge;
+
+    AgeGroup(int minAge, int maxAge) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    public static AgeGroup of(LocalDate birthDate, LocalDate onDate) {
+        var age = Period.between(birthDate, onDate).getYears();
+        for(var ageGroup : values()) {
+            if(age <= ageGroup.maxAge) {
+                return ageGroup;
+            }
+        }
+        return SENIOR;
+    }
+
+    // Latest birth date that still makes a participant old enough for this group on the given date
+    public LocalDate getLatestBirthDate(LocalDate onDate) {
+        return onDate.minusYears(minAge);
+    }
+
+    // Earliest birth date that still makes a participant young enough for this group, or null if unbounded
+    public LocalDate getEarliestBirthDate(LocalDate onDate) {
+        if(maxAge == Integer.MAX_VALUE) {
+            return null;
+        }
+        return onDate.minusYears(maxAge + 1L).plusDays(1);
+    }
+}
@@ -2,16 +2,23 @@ package dk.emilvn.exam.participant;
 
 import dk.emilvn.exam.discipline.Discipline;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_participant_club", columnList = "club"),
+        @Index(name = "idx_participant_gender_birth_date", columnList = "is_male, birth_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,8 +31,12 @@ public class Participant {
     private LocalDate birthDate;
     private String club;
 
+    // Keyed by discipline id for constant-time membership checks; unlike a List, Hibernate updates single join rows
     @ManyToMany(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.REFRESH, CascadeType.REMOVE}, fetch = FetchType.EAGER)
-    private List<Discipline> disciplines = new ArrayList<>();
+    @MapKey(name = "id")
+    @OrderBy("id")
+    @Getter(AccessLevel.NONE)
+    private Map<Long, Discipline> disciplines = new LinkedHashMap<>();
 
     public Participant(Long id, String name, boolean isMale, LocalDate birthDate, String club) {
         this.id = id;
@@ -42,17 +53,19 @@ public class Participant {
         this.club = club;
     }
 
+    public Collection<Discipline> getDisciplines() {
+        return Collections.unmodifiableCollection(disciplines.values());
+    }
+
     public void addDiscipline(Discipline discipline) {
-        if(!hasDiscipline(discipline)){
-            disciplines.add(discipline);
-        }
+        disciplines.putIfAbsent(discipline.getId(), discipline);
     }
 
     public void removeDiscipline(Discipline discipline) {
-        disciplines.removeIf(d -> d.getId().equals(discipline.getId()));
+        disciplines.remove(discipline.getId());
     }
 
     public boolean hasDiscipline(Discipline discipline) {
-        return disciplines.stream().anyMatch(d -> d.getId().equals(discipline.getId()));
+        return disciplines.containsKey(discipline.getId());
     }
 }
@@ -1,30 +1,59 @@
 package dk.emilvn.exam.participant;
 
+import dk.emilvn.exam.cache.JsonResponseCache;
 import dk.emilvn.exam.discipline.DisciplineDTO;
+import dk.emilvn.exam.pagination.KeysetPage;
+import dk.emilvn.exam.version.AggregateVersions;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
 public class ParticipantController {
     private final ParticipantService participantService;
+    private final JsonResponseCache jsonResponseCache;
+    private final AggregateVersions aggregateVersions;
 
-    public ParticipantController(ParticipantService participantService) {
+    public ParticipantController(ParticipantService participantService, JsonResponseCache jsonResponseCache, AggregateVersions aggregateVersions) {
         this.participantService = participantService;
+        this.jsonResponseCache = jsonResponseCache;
+        this.aggregateVersions = aggregateVersions;
     }
 
     @GetMapping("/participants")
-    public ResponseEntity<List<ParticipantDTO>> getAll(
+    public ResponseEntity<?> getAll(
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
     ) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.participants())) {
+            return null;
+        }
+        if(after != null) {
+            var participantPage = participantService.findPage(after, size);
+            var response = ResponseEntity.ok();
+            if(participantPage.nextCursor() != null) {
+                response.header(KeysetPage.NEXT_CURSOR_HEADER, participantPage.nextCursor());
+            }
+            return response.body(participantPage.content());
+        }
+        if(jsonResponseCache.isEnabled()) {
+            return jsonResponseCache.get("participantCache", "findAll_" + page + "_" + size, () -> participantService.findAll(page, size), acceptEncoding);
+        }
         return ResponseEntity.ok(participantService.findAll(page, size));
     }
 
     @GetMapping("/participants/{id}")
-    public ResponseEntity<ParticipantDTO> getById(@PathVariable Long id) {
+    public ResponseEntity<ParticipantDTO> getById(@PathVariable Long id, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.participant(id))) {
+            return null;
+        }
         return ResponseEntity.ok(participantService.findById(id));
     }
 
@@ -50,7 +79,10 @@ public class ParticipantController {
     }
 
     @GetMapping("/participants/{id}/disciplines")
-    public ResponseEntity<List<DisciplineDTO>> getDisciplines(@PathVariable Long id) {
+    public ResponseEntity<List<DisciplineDTO>> getDisciplines(@PathVariable Long id, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.participant(id), AggregateVersions.disciplines())) {
+            return null;
+        }
         return ResponseEntity.ok(participantService.getDisciplines(id));
     }
 
@@ -59,6 +91,11 @@ public class ParticipantController {
         return ResponseEntity.ok(participantService.addDiscipline(id, disciplineDTO.id()));
     }
 
+    @PutMapping("/participants/{id}/disciplines/bulk")
+    public ResponseEntity<List<DisciplineDTO>> updateDisciplines(@PathVariable Long id, @RequestBody ParticipantDisciplinesDTO participantDisciplinesDTO) {
+        return ResponseEntity.ok(participantService.updateDisciplines(id, participantDisciplinesDTO));
+    }
+
     @DeleteMapping("/participants/{id}/disciplines/{disciplineId}")
     public ResponseEntity<List<DisciplineDTO>> removeDiscipline(@PathVariable Long id, @PathVariable Long disciplineId) {
         return ResponseEntity.ok(participantService.removeDiscipline(id, disciplineId));
@@ -0,0 +1,6 @@
+package dk.emilvn.exam.participant;
+
+import java.util.Set;
+
+public record ParticipantDisciplinesDTO(Set<Long> add, Set<Long> remove) {
+}
@@ -1,6 +1,36 @@
 package dk.emilvn.exam.participant;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ParticipantRepository extends JpaRepository<Participant, Long>{
+    // Selects only the ParticipantDTO columns, so listing neither fetches disciplines nor runs a count query
+    String SELECT_DTO = "select new dk.emilvn.exam.participant.ParticipantDTO(p.id, p.name, p.isMale, p.birthDate, p.club) from Participant p";
+
+    @Query(SELECT_DTO + " order by p.id")
+    List<ParticipantDTO> findAllAsDTO();
+
+    @Query(SELECT_DTO + " order by p.id")
+    List<ParticipantDTO> findAllAsDTO(Pageable pageable);
+
+    @Query("select distinct p from Participant p left join fetch p.disciplines where p.id in :ids")
+    List<Participant> findAllWithDisciplinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_DTO + " where p.id > :id order by p.id")
+    List<ParticipantDTO> findPageAfterAsDTO(@Param("id") Long id, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into participant_disciplines (participant_id, disciplines_id) select :participantId, d.id from discipline d where d.id in :disciplineIds and not exists (select 1 from participant_disciplines pd where pd.participant_id = :participantId and pd.disciplines_id = d.id)", nativeQuery = true)
+    int addDisciplines(@Param("participantId") Long participantId, @Param("disciplineIds") Collection<Long> disciplineIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from participant_disciplines where participant_id = :participantId and disciplines_id in :disciplineIds", nativeQuery = true)
+    int removeDisciplines(@Param("participantId") Long participantId, @Param("disciplineIds") Collection<Long> disciplineIds);
 }
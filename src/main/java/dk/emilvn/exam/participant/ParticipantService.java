@@ -1,25 +1,41 @@
 package dk.emilvn.exam.participant;
 
+import dk.emilvn.exam.cache.CacheInvalidator;
+import dk.emilvn.exam.cache.CacheTags;
+import dk.emilvn.exam.columnar.ResultColumnStore;
 import dk.emilvn.exam.discipline.DisciplineDTO;
 import dk.emilvn.exam.discipline.DisciplineService;
 import dk.emilvn.exam.error.NotFoundException;
-import org.springframework.cache.annotation.CacheEvict;
+import dk.emilvn.exam.version.AggregateVersions;
+import dk.emilvn.exam.pagination.KeysetCursor;
+import dk.emilvn.exam.pagination.KeysetPage;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class ParticipantService {
     private final String cacheName = "participantCache";
     private final ParticipantRepository participantRepository;
     private final DisciplineService disciplineService;
+    private final CacheInvalidator cacheInvalidator;
+    private final AggregateVersions aggregateVersions;
+    private final ResultColumnStore resultColumnStore;
 
-    public ParticipantService(ParticipantRepository participantRepository, DisciplineService disciplineService) {
+    public ParticipantService(ParticipantRepository participantRepository, DisciplineService disciplineService, CacheInvalidator cacheInvalidator, AggregateVersions aggregateVersions, ResultColumnStore resultColumnStore) {
         this.participantRepository = participantRepository;
         this.disciplineService = disciplineService;
+        this.cacheInvalidator = cacheInvalidator;
+        this.aggregateVersions = aggregateVersions;
+        this.resultColumnStore = resultColumnStore;
     }
 
     public ParticipantDTO toDTO(Participant participant) {
@@ -45,19 +61,24 @@ public class ParticipantService {
     @Cacheable(value = cacheName, key = "'findAll'+'_'+#page+'_'+#size", unless = "#result.size() == 0")
     public List<ParticipantDTO> findAll(Integer page, Integer size) {
         if(page != null && size != null && page >= 0 && size > 0) {
-            return participantRepository
-                    .findAll(PageRequest.of(page, size))
-                    .getContent()
-                    .stream()
-                    .map(this::toDTO)
-                    .toList();
+            return participantRepository.findAllAsDTO(PageRequest.of(page, size));
         }
-        return participantRepository.findAll().stream()
-                .map(this::toDTO)
-                .toList();
+        return participantRepository.findAllAsDTO();
+    }
+
+    // Seeks past the last id of the previous page instead of using OFFSET, and skips the count query
+    public KeysetPage<ParticipantDTO> findPage(String after, Integer size) {
+        var pageSize = KeysetPage.validatePageSize(size);
+        var afterId = after == null || after.isEmpty() ? 0L : KeysetCursor.decode(after, 1)[0];
+        var participants = participantRepository.findPageAfterAsDTO(afterId, Limit.of(pageSize));
+        String nextCursor = null;
+        if(participants.size() == pageSize) {
+            nextCursor = KeysetCursor.encode(participants.getLast().id());
+        }
+        return new KeysetPage<>(participants, nextCursor);
     }
 
-    @Cacheable(value = cacheName, key = "#id", condition="#id > 0L")
+    @Cacheable(value = cacheName, key = "#id", condition="#id > 0L", sync = true)
     public ParticipantDTO findById(Long id) {
         return participantRepository.findById(id)
                 .map(this::toDTO)
@@ -69,18 +90,23 @@ public class ParticipantService {
                 .orElseThrow(() -> new NotFoundException("Participant not found"));
     }
 
+    public List<Participant> findEntitiesByIds(Collection<Long> ids) {
+        return participantRepository.findAllWithDisciplinesByIdIn(ids);
+    }
+
     @CachePut(value = cacheName, key = "#result.id()")
-    @CacheEvict(value = cacheName, allEntries = true, beforeInvocation = true)
     public ParticipantDTO create(ParticipantDTO participantDTO) {
+        cacheInvalidator.evictTags(CacheTags.lists(cacheName));
         var participant = fromDTO(participantDTO);
         var savedParticipant = participantRepository.save(participant);
+        aggregateVersions.bump(AggregateVersions.participants(), AggregateVersions.participant(savedParticipant.getId()));
 
         return toDTO(savedParticipant);
     }
 
     @CachePut(value = cacheName, key = "#id")
-    @CacheEvict(value = cacheName, allEntries = true, beforeInvocation = true)
     public ParticipantDTO update(Long id, ParticipantDTO participantDTO) {
+        cacheInvalidator.evictTags(CacheTags.participant(id));
         var participant = participantRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Participant not found"));
 
@@ -90,13 +116,15 @@ public class ParticipantService {
         participant.setClub(participantDTO.club());
 
         participantRepository.save(participant);
+        aggregateVersions.bump(AggregateVersions.participants(), AggregateVersions.participant(id));
+        resultColumnStore.updateParticipant(id, participant.isMale(), participant.getClub());
 
         return toDTO(participant);
     }
 
     @CachePut(value = cacheName, key = "#id")
-    @CacheEvict(value = cacheName, allEntries = true, beforeInvocation = true)
     public ParticipantDTO patch(Long id, ParticipantDTO participantDTO) {
+        cacheInvalidator.evictTags(CacheTags.participant(id));
         var participant = participantRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Participant not found"));
 
@@ -114,16 +142,19 @@ public class ParticipantService {
         }
 
         participantRepository.save(participant);
+        aggregateVersions.bump(AggregateVersions.participants(), AggregateVersions.participant(id));
+        resultColumnStore.updateParticipant(id, participant.isMale(), participant.getClub());
 
         return toDTO(participant);
     }
 
-    @CacheEvict(value = cacheName, allEntries = true)
     public void delete(Long id) {
         if(!participantRepository.existsById(id)) {
             throw new NotFoundException("Participant not found");
         }
         participantRepository.deleteById(id);
+        cacheInvalidator.evictTags(CacheTags.participant(id), CacheTags.lists(cacheName));
+        aggregateVersions.bump(AggregateVersions.participants(), AggregateVersions.participant(id));
     }
 
     public List<DisciplineDTO> getDisciplines(Long id) {
@@ -135,8 +166,8 @@ public class ParticipantService {
                 .toList();
     }
 
-    @CacheEvict(value = cacheName, allEntries = true)
     public List<DisciplineDTO> addDiscipline(Long id, Long disciplineId) {
+        cacheInvalidator.evictTags(CacheTags.participant(id));
         var participant = participantRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Participant not found"));
 
@@ -145,14 +176,15 @@ public class ParticipantService {
 
         participant.addDiscipline(discipline);
         participantRepository.save(participant);
+        aggregateVersions.bump(AggregateVersions.participant(id));
 
         return participant.getDisciplines().stream()
                 .map(disciplineService::toDTO)
                 .toList();
     }
 
-    @CacheEvict(value = cacheName, allEntries = true)
     public List<DisciplineDTO> removeDiscipline(Long id, Long disciplineId) {
+        cacheInvalidator.evictTags(CacheTags.participant(id));
         var participant = participantRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Participant not found"));
 
@@ -161,9 +193,38 @@ public class ParticipantService {
 
         participant.removeDiscipline(discipline);
         participantRepository.save(participant);
+        aggregateVersions.bump(AggregateVersions.participant(id));
 
         return participant.getDisciplines().stream()
                 .map(disciplineService::toDTO)
                 .toList();
     }
+
+    // One insert ... select and one delete for the whole set instead of a round trip per discipline
+    @Transactional
+    public List<DisciplineDTO> updateDisciplines(Long id, ParticipantDisciplinesDTO participantDisciplinesDTO) {
+        var add = participantDisciplinesDTO.add() == null ? Set.<Long>of() : participantDisciplinesDTO.add();
+        var remove = participantDisciplinesDTO.remove() == null ? Set.<Long>of() : participantDisciplinesDTO.remove();
+        if(add.stream().anyMatch(remove::contains)) {
+            throw new IllegalArgumentException("Discipline cannot be both added and removed");
+        }
+        if(!participantRepository.existsById(id)) {
+            throw new NotFoundException("Participant not found");
+        }
+        var disciplineIds = new HashSet<Long>(add);
+        disciplineIds.addAll(remove);
+        if(disciplineService.findEntitiesByIds(disciplineIds).size() != disciplineIds.size()) {
+            throw new NotFoundException("Discipline not found");
+        }
+
+        cacheInvalidator.evictTags(CacheTags.participant(id));
+        if(!remove.isEmpty()) {
+            participantRepository.removeDisciplines(id, remove);
+        }
+        if(!add.isEmpty()) {
+            participantRepository.addDisciplines(id, add);
+        }
+        aggregateVersions.bump(AggregateVersions.participant(id));
+        return getDisciplines(id);
+    }
 }
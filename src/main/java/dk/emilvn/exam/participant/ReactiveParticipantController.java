@@ -0,0 +1,29 @@
+package dk.emilvn.exam.participant;
+
+import dk.emilvn.exam.error.NotFoundException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class ReactiveParticipantController {
+    private final ReactiveParticipantRepository reactiveParticipantRepository;
+
+    public ReactiveParticipantController(ReactiveParticipantRepository reactiveParticipantRepository) {
+        this.reactiveParticipantRepository = reactiveParticipantRepository;
+    }
+
+    @GetMapping(value = "/reactive/participants", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ParticipantDTO> getAll() {
+        return reactiveParticipantRepository.findAll();
+    }
+
+    @GetMapping("/reactive/participants/{id}")
+    public Mono<ParticipantDTO> getById(@PathVariable Long id) {
+        return reactiveParticipantRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Participant not found")));
+    }
+}
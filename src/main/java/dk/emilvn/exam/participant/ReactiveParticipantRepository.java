@@ -0,0 +1,43 @@
+package dk.emilvn.exam.participant;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Repository
+public class ReactiveParticipantRepository {
+    private static final String SELECT = "select id, name, is_male, birth_date, club from participant";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveParticipantRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<ParticipantDTO> findAll() {
+        return databaseClient.sql(SELECT + " order by id")
+                .map(ReactiveParticipantRepository::toDTO)
+                .all();
+    }
+
+    public Mono<ParticipantDTO> findById(Long id) {
+        return databaseClient.sql(SELECT + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveParticipantRepository::toDTO)
+                .one();
+    }
+
+    private static ParticipantDTO toDTO(Readable row) {
+        return new ParticipantDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("is_male", Boolean.class),
+                row.get("birth_date", LocalDate.class),
+                row.get("club", String.class)
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package dk.emilvn.exam.personalbest;
+
+import dk.emilvn.exam.version.AggregateVersions;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+public class PersonalBestController {
+    private final PersonalBestService personalBestService;
+    private final AggregateVersions aggregateVersions;
+
+    public PersonalBestController(PersonalBestService personalBestService, AggregateVersions aggregateVersions) {
+        this.personalBestService = personalBestService;
+        this.aggregateVersions = aggregateVersions;
+    }
+
+    @GetMapping("/participants/{id}/bests")
+    public ResponseEntity<List<PersonalBestDTO>> getBests(@PathVariable Long id, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.participant(id), AggregateVersions.results())) {
+            return null;
+        }
+        return ResponseEntity.ok(personalBestService.getBests(id));
+    }
+}
@@ -0,0 +1,9 @@
+package dk.emilvn.exam.personalbest;
+
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultType;
+
+import java.util.SortedMap;
+
+public record PersonalBestDTO(Long disciplineId, ResultType resultType, int count, ResultDTO best, ResultDTO latest, SortedMap<Integer, ResultDTO> seasonBests) {
+}
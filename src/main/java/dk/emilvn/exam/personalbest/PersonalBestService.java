@@ -0,0 +1,91 @@
+package dk.emilvn.exam.personalbest;
+
+import dk.emilvn.exam.discipline.DisciplineDTO;
+import dk.emilvn.exam.discipline.DisciplineRegistry;
+import dk.emilvn.exam.participant.ParticipantService;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import dk.emilvn.exam.result.ResultType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+public class PersonalBestService {
+    private final Map<Long, PersonalBests> personalBests = new ConcurrentHashMap<>();
+    private final ResultRepository resultRepository;
+    private final ParticipantService participantService;
+    private final DisciplineRegistry disciplineRegistry;
+
+    public PersonalBestService(ResultRepository resultRepository, ParticipantService participantService, DisciplineRegistry disciplineRegistry) {
+        this.resultRepository = resultRepository;
+        this.participantService = participantService;
+        this.disciplineRegistry = disciplineRegistry;
+    }
+
+    public List<PersonalBestDTO> getBests(Long participantId) {
+        participantService.findById(participantId);
+        var bests = personalBests.computeIfAbsent(participantId, this::load);
+        // A discipline whose result type has changed since it was loaded is recomputed in the new direction
+        bests.resultTypes().forEach((disciplineId, resultType) -> {
+            if(resultType(disciplineId) != resultType) {
+                personalBests.computeIfPresent(participantId, (id, current) -> recompute(id, disciplineId, current));
+            }
+        });
+        return bests.toDTOs();
+    }
+
+    // Bests are loaded from the database the first time a participant is read and kept up to date from then on
+    private PersonalBests load(Long participantId) {
+        var bests = new PersonalBests();
+        resultRepository.findAllAsDTOByParticipantId(participantId).stream()
+                .collect(Collectors.groupingBy(ResultDTO::disciplineId))
+                .forEach((disciplineId, results) -> bests.replace(disciplineId, resultType(disciplineId), results));
+        return bests;
+    }
+
+    private PersonalBests recompute(Long participantId, Long disciplineId, PersonalBests bests) {
+        bests.replace(disciplineId, resultType(disciplineId), resultRepository.findAllAsDTOByParticipantIdAndDisciplineId(participantId, disciplineId));
+        return bests;
+    }
+
+    private ResultType resultType(Long disciplineId) {
+        return disciplineRegistry.findById(disciplineId)
+                .map(DisciplineDTO::resultType)
+                .orElse(null);
+    }
+
+    // Called by ResultService for every write, with previous null for a new result and current null for a deleted one.
+    // Inside a transaction the change waits for the commit, so a rollback never leaves a best that does not exist.
+    public void update(ResultDTO previous, ResultDTO current) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(previous, current);
+                }
+            });
+        } else {
+            apply(previous, current);
+        }
+    }
+
+    // Runs inside the map's compute functions, so it cannot interleave with a participant being loaded
+    private void apply(ResultDTO previous, ResultDTO current) {
+        if(previous != null) {
+            personalBests.computeIfPresent(previous.participantId(), (participantId, bests) ->
+                    bests.remove(previous) ? recompute(participantId, previous.disciplineId(), bests) : bests);
+        }
+        if(current != null) {
+            personalBests.computeIfPresent(current.participantId(), (participantId, bests) -> {
+                bests.add(current, resultType(current.disciplineId()));
+                return bests;
+            });
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package dk.emilvn.exam.personalbest;
+
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultType;
+
+import java.util.*;
+
+/**
+ * Best ever, best per season, latest result and result count for every discipline of a single participant.
+ * Adding a result is a constant-time comparison; removing the current best, latest or season best recomputes that discipline.
+ */
+public class PersonalBests {
+    private final Map<Long, DisciplineBests> byDiscipline = new HashMap<>();
+
+    public synchronized void add(ResultDTO result, ResultType resultType) {
+        var bests = byDiscipline.get(result.disciplineId());
+        if(bests == null || bests.resultType != resultType) {
+            bests = new DisciplineBests(resultType);
+            byDiscipline.put(result.disciplineId(), bests);
+        }
+        bests.add(result);
+    }
+
+    // Returns true when the removed result was a best or the latest, in which case the caller has to recompute the discipline
+    public synchronized boolean remove(ResultDTO result) {
+        var bests = byDiscipline.get(result.disciplineId());
+        if(bests == null || !bests.resultIds.remove(result.id())) {
+            return false;
+        }
+        if(bests.resultIds.isEmpty()) {
+            byDiscipline.remove(result.disciplineId());
+            return false;
+        }
+        return bests.references(result);
+    }
+
+    public synchronized void replace(Long disciplineId, ResultType resultType, List<ResultDTO> results) {
+        byDiscipline.remove(disciplineId);
+        results.forEach(result -> add(result, resultType));
+    }
+
+    public synchronized Map<Long, ResultType> resultTypes() {
+        var resultTypes = new HashMap<Long, ResultType>();
+        byDiscipline.forEach((disciplineId, bests) -> resultTypes.put(disciplineId, bests.resultType));
+        return resultTypes;
+    }
+
+    public synchronized List<PersonalBestDTO> toDTOs() {
+        var dtos = new ArrayList<PersonalBestDTO>(byDiscipline.size());
+        byDiscipline.forEach((disciplineId, bests) -> dtos.add(bests.toDTO(disciplineId)));
+        dtos.sort(Comparator.comparing(PersonalBestDTO::disciplineId));
+        return dtos;
+    }
+
+    private static final class DisciplineBests {
+        private final ResultType resultType;
+        // Makes add idempotent, so a result that was already loaded from the database is not counted twice
+        private final Set<Long> resultIds = new HashSet<>();
+        private final SortedMap<Integer, ResultDTO> seasonBests = new TreeMap<>();
+        private ResultDTO best;
+        private ResultDTO latest;
+
+        DisciplineBests(ResultType resultType) {
+            this.resultType = resultType;
+        }
+
+        void add(ResultDTO result) {
+            resultIds.add(result.id());
+            if(best == null || isBetter(result, best)) {
+                best = result;
+            }
+            if(latest == null || isLater(result, latest)) {
+                latest = result;
+            }
+            seasonBests.merge(result.date().getYear(), result, (current, candidate) -> isBetter(candidate, current) ? candidate : current);
+        }
+
+        boolean references(ResultDTO result) {
+            var seasonBest = seasonBests.get(result.date().getYear());
+            return best.id().equals(result.id())
+                    || latest.id().equals(result.id())
+                    || (seasonBest != null && seasonBest.id().equals(result.id()));
+        }
+
+        // Ties go to the earlier result, so the outcome does not depend on the order results are added in
+        private boolean isBetter(ResultDTO a, ResultDTO b) {
+            int comparison = resultType.compare(a.result(), b.result());
+            return comparison < 0 || (comparison == 0 && a.id() < b.id());
+        }
+
+        private boolean isLater(ResultDTO a, ResultDTO b) {
+            int comparison = a.date().compareTo(b.date());
+            return comparison > 0 || (comparison == 0 && a.id() > b.id());
+        }
+
+        PersonalBestDTO toDTO(Long disciplineId) {
+            return new PersonalBestDTO(disciplineId, resultType, resultIds.size(), best, latest, new TreeMap<>(seasonBests));
+        }
+    }
+}
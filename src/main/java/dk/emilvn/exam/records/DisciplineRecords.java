@@ -0,0 +1,95 @@
+package dk.emilvn.exam.records;
+
+import dk.emilvn.exam.participant.AgeGroup;
+import dk.emilvn.exam.result.ResultType;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Club and age-group records of a single discipline. A result competes for at most two records,
+ * so checking it is two hash lookups. Writes are serialized by the caller, reads need no lock.
+ */
+class DisciplineRecords {
+    private final Long disciplineId;
+    private final ResultType resultType;
+    private final Map<RecordKey, RecordDTO> records = new ConcurrentHashMap<>();
+    // Number of records each result holds, so removing a result that holds none skips the recompute
+    private final Map<Long, Integer> heldRecordCounts = new HashMap<>();
+
+    DisciplineRecords(Long disciplineId, ResultType resultType) {
+        this.disciplineId = disciplineId;
+        this.resultType = resultType;
+    }
+
+    ResultType getResultType() {
+        return resultType;
+    }
+
+    // Both scopes are split by age group, so a participant without a birth date competes for neither
+    void offer(RecordCandidate candidate, Consumer<RecordBrokenDTO> onBroken) {
+        if(candidate.birthDate() == null) {
+            return;
+        }
+        var ageGroup = AgeGroup.of(candidate.birthDate(), candidate.date());
+        offer(new RecordKey(RecordScope.AGE_GROUP, null, candidate.isMale(), ageGroup), candidate, onBroken);
+        if(candidate.club() != null) {
+            offer(new RecordKey(RecordScope.CLUB, candidate.club(), candidate.isMale(), ageGroup), candidate, onBroken);
+        }
+    }
+
+    private void offer(RecordKey key, RecordCandidate candidate, Consumer<RecordBrokenDTO> onBroken) {
+        var current = records.get(key);
+        if(current != null && !isBetter(candidate.result(), candidate.date(), candidate.resultId(), current)) {
+            return;
+        }
+        var record = new RecordDTO(disciplineId, key.scope(), key.club(), key.isMale(), key.ageGroup(),
+                candidate.resultId(), candidate.participantId(), candidate.result(), candidate.date());
+        records.put(key, record);
+        heldRecordCounts.merge(candidate.resultId(), 1, Integer::sum);
+        if(current != null) {
+            heldRecordCounts.computeIfPresent(current.resultId(), (resultId, count) -> count == 1 ? null : count - 1);
+            onBroken.accept(new RecordBrokenDTO(record, current));
+        }
+    }
+
+    // Reports every record the result holds here that beats the record of the same key in before
+    void reportBroken(DisciplineRecords before, Long resultId, Consumer<RecordBrokenDTO> onBroken) {
+        records.forEach((key, record) -> {
+            var previous = before.records.get(key);
+            if(record.resultId().equals(resultId) && previous != null && isBetter(record.result(), record.date(), record.resultId(), previous)) {
+                onBroken.accept(new RecordBrokenDTO(record, previous));
+            }
+        });
+    }
+
+    boolean isHeldBy(Long resultId) {
+        return heldRecordCounts.containsKey(resultId);
+    }
+
+    int size() {
+        return records.size();
+    }
+
+    List<RecordDTO> getRecords(RecordScope scope) {
+        return records.values().stream()
+                .filter(record -> scope == null || record.scope() == scope)
+                .sorted(Comparator.comparing(RecordDTO::scope)
+                        .thenComparing(RecordDTO::isMale)
+                        .thenComparing(RecordDTO::ageGroup)
+                        .thenComparing(RecordDTO::club, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    // A tie keeps the record with whoever set it first
+    private boolean isBetter(int result, LocalDate date, Long resultId, RecordDTO record) {
+        int comparison = resultType.compare(result, record.result());
+        if(comparison != 0) {
+            return comparison < 0;
+        }
+        int byDate = date.compareTo(record.date());
+        return byDate < 0 || (byDate == 0 && resultId < record.resultId());
+    }
+}
@@ -0,0 +1,4 @@
+package dk.emilvn.exam.records;
+
+public record RecordBrokenDTO(RecordDTO record, RecordDTO previous) {
+}
@@ -0,0 +1,7 @@
+package dk.emilvn.exam.records;
+
+import java.time.LocalDate;
+
+// A result together with the participant columns that decide which records it competes for
+public record RecordCandidate(Long resultId, LocalDate date, int result, Long participantId, boolean isMale, LocalDate birthDate, String club) {
+}
@@ -0,0 +1,32 @@
+package dk.emilvn.exam.records;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+public class RecordController {
+    private final RecordService recordService;
+
+    public RecordController(RecordService recordService) {
+        this.recordService = recordService;
+    }
+
+    @GetMapping("/disciplines/{id}/records")
+    public ResponseEntity<List<RecordDTO>> getRecords(@PathVariable Long id, @RequestParam(required = false) RecordScope scope) {
+        return ResponseEntity.ok(recordService.getRecords(id, scope));
+    }
+
+    @GetMapping(value = "/records/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter live(@RequestParam(required = false) Long disciplineId) {
+        return recordService.subscribe(disciplineId);
+    }
+
+    @PostMapping("/records/rebuild")
+    public ResponseEntity<RecordRebuildDTO> rebuild() {
+        return ResponseEntity.ok(recordService.rebuild());
+    }
+}
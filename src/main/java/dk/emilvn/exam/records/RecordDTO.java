@@ -0,0 +1,8 @@
+package dk.emilvn.exam.records;
+
+import dk.emilvn.exam.participant.AgeGroup;
+
+import java.time.LocalDate;
+
+public record RecordDTO(Long disciplineId, RecordScope scope, String club, boolean isMale, AgeGroup ageGroup, Long resultId, Long participantId, int result, LocalDate date) {
+}
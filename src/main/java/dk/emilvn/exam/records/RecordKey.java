@@ -0,0 +1,7 @@
+package dk.emilvn.exam.records;
+
+import dk.emilvn.exam.participant.AgeGroup;
+
+// Club is null for age-group records, which are open to every club
+record RecordKey(RecordScope scope, String club, boolean isMale, AgeGroup ageGroup) {
+}
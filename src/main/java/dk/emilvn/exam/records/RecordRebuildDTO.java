@@ -0,0 +1,4 @@
+package dk.emilvn.exam.records;
+
+public record RecordRebuildDTO(int disciplineCount, int recordCount) {
+}
@@ -0,0 +1,13 @@
+package dk.emilvn.exam.records;
+
+import dk.emilvn.exam.result.Result;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RecordRepository extends Repository<Result, Long> {
+    @Query("select new dk.emilvn.exam.records.RecordCandidate(r.id, r.date, r.result, p.id, p.isMale, p.birthDate, p.club) from Result r join r.participant p where r.discipline.id = :disciplineId")
+    List<RecordCandidate> findCandidatesByDisciplineId(@Param("disciplineId") Long disciplineId);
+}
@@ -0,0 +1,5 @@
+package dk.emilvn.exam.records;
+
+public enum RecordScope {
+    CLUB, AGE_GROUP
+}
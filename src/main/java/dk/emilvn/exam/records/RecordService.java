@@ -0,0 +1,172 @@
+package dk.emilvn.exam.records;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.emilvn.exam.discipline.DisciplineDTO;
+import dk.emilvn.exam.discipline.DisciplineRegistry;
+import dk.emilvn.exam.discipline.DisciplineService;
+import dk.emilvn.exam.participant.ParticipantService;
+import dk.emilvn.exam.result.ResultChangedEvent;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultType;
+import dk.emilvn.exam.sse.SseBroadcaster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class RecordService implements SmartLifecycle {
+    private static final int DEFAULT_BUFFER_SIZE = 64;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(30);
+
+    private final Map<Long, DisciplineRecords> records = new ConcurrentHashMap<>();
+    private final RecordRepository recordRepository;
+    private final DisciplineService disciplineService;
+    private final DisciplineRegistry disciplineRegistry;
+    private final ParticipantService participantService;
+    private final ObjectMapper objectMapper;
+    private final SseBroadcaster broadcaster;
+    private volatile boolean running;
+
+    public RecordService(RecordRepository recordRepository, DisciplineService disciplineService, DisciplineRegistry disciplineRegistry, ParticipantService participantService, ObjectMapper objectMapper, Environment environment) {
+        this.recordRepository = recordRepository;
+        this.disciplineService = disciplineService;
+        this.disciplineRegistry = disciplineRegistry;
+        this.participantService = participantService;
+        this.objectMapper = objectMapper;
+        this.broadcaster = new SseBroadcaster(
+                environment.getProperty("app.live.buffer-size", Integer.class, DEFAULT_BUFFER_SIZE),
+                environment.getProperty("app.live.timeout", Duration.class, DEFAULT_TIMEOUT)
+        );
+    }
+
+    public List<RecordDTO> getRecords(Long disciplineId, RecordScope scope) {
+        var resultType = disciplineService.findById(disciplineId).resultType();
+        var disciplineRecords = records.compute(disciplineId, (id, current) ->
+                current == null || current.getResultType() != resultType ? load(id, resultType, null) : current);
+        return disciplineRecords.getRecords(scope);
+    }
+
+    // A null disciplineId follows every discipline
+    public SseEmitter subscribe(Long disciplineId) {
+        return broadcaster.subscribe(disciplineId);
+    }
+
+    // Recomputes every discipline from its full history, one discipline per worker.
+    // The registry is reloaded first, so disciplines written around the service are rebuilt too.
+    public RecordRebuildDTO rebuild() {
+        disciplineRegistry.reload();
+        var disciplines = disciplineRegistry.findAll();
+        records.keySet().retainAll(disciplines.stream().map(DisciplineDTO::id).collect(Collectors.toSet()));
+        var recordCount = disciplines.parallelStream()
+                .mapToInt(discipline -> records.compute(discipline.id(), (id, current) -> load(id, discipline.resultType(), null)).size())
+                .sum();
+        return new RecordRebuildDTO(disciplines.size(), recordCount);
+    }
+
+    // Records of a discipline are loaded the first time it is read or written to and kept up to date from then on.
+    // Removing a record holder recomputes its discipline, since the runner-up is not kept.
+    // The write has committed by now, so a failure here is logged rather than passed back to the writer.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onResultChanged(ResultChangedEvent event) {
+        try {
+            var previous = event.previous();
+            var current = event.current();
+            // An update within one discipline is settled by offer, which needs the records as they stood before it
+            var updatedInPlace = previous != null && current != null && Objects.equals(previous.disciplineId(), current.disciplineId());
+            if(previous != null && !updatedInPlace) {
+                records.computeIfPresent(previous.disciplineId(), (id, disciplineRecords) ->
+                        disciplineRecords.isHeldBy(previous.id()) ? load(id, disciplineRecords.getResultType(), null) : disciplineRecords);
+            }
+            if(current != null) {
+                offer(current, updatedInPlace ? previous : null);
+            }
+        } catch(RuntimeException e) {
+            log.warn("Could not update records after {} of result", event.type(), e);
+        }
+    }
+
+    // previous is the version of the result this one replaced in the same discipline, if any
+    private void offer(ResultDTO result, ResultDTO previous) {
+        var resultType = disciplineService.findById(result.disciplineId()).resultType();
+        var candidate = toCandidate(result);
+        var previousCandidate = previous == null ? null : toCandidate(previous);
+        var broken = new ArrayList<RecordBrokenDTO>();
+        records.compute(result.disciplineId(), (id, disciplineRecords) -> {
+            // The result is already committed, so a fresh load leaves it out and puts back the version it replaced
+            if(disciplineRecords == null || disciplineRecords.getResultType() != resultType) {
+                disciplineRecords = load(id, resultType, result.id());
+                if(previousCandidate != null) {
+                    disciplineRecords.offer(previousCandidate, recordBroken -> {});
+                }
+            }
+            // A holder that changed is recomputed, then compared with the records it held before,
+            // so a holder improving their own record still breaks it
+            if(previous != null && disciplineRecords.isHeldBy(previous.id())) {
+                var reloaded = load(id, resultType, null);
+                reloaded.reportBroken(disciplineRecords, result.id(), broken::add);
+                return reloaded;
+            }
+            disciplineRecords.offer(candidate, broken::add);
+            return disciplineRecords;
+        });
+        broken.forEach(recordBroken -> broadcaster.publish(result.disciplineId(), toEvent(recordBroken)));
+    }
+
+    private RecordCandidate toCandidate(ResultDTO result) {
+        var participant = participantService.findById(result.participantId());
+        return new RecordCandidate(result.id(), result.date(), result.result(), participant.id(), participant.isMale(), participant.birthDate(), participant.club());
+    }
+
+    private DisciplineRecords load(Long disciplineId, ResultType resultType, Long excludedResultId) {
+        var disciplineRecords = new DisciplineRecords(disciplineId, resultType);
+        for(var candidate : recordRepository.findCandidatesByDisciplineId(disciplineId)) {
+            if(!Objects.equals(candidate.resultId(), excludedResultId)) {
+                disciplineRecords.offer(candidate, recordBroken -> {});
+            }
+        }
+        return disciplineRecords;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Runs in the default phase, before the web server's graceful shutdown would wait on open streams
+    @Override
+    public void stop() {
+        running = false;
+        broadcaster.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(RecordBrokenDTO recordBroken) {
+        try {
+            return SseEmitter.event()
+                    .id(String.valueOf(recordBroken.record().resultId()))
+                    .name("record-broken")
+                    .data(objectMapper.writeValueAsString(recordBroken), MediaType.APPLICATION_JSON);
+        } catch(JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize record for result " + recordBroken.record().resultId(), e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package dk.emilvn.exam.result;
+
+import dk.emilvn.exam.error.NotFoundException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lists stream as NDJSON; each row is written as the client reads, so a slow client only slows its own query
+@RestController
+public class ReactiveResultController {
+    private final ReactiveResultRepository reactiveResultRepository;
+
+    public ReactiveResultController(ReactiveResultRepository reactiveResultRepository) {
+        this.reactiveResultRepository = reactiveResultRepository;
+    }
+
+    @GetMapping(value = "/reactive/results", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ResultDTO> getAll() {
+        return reactiveResultRepository.findAll();
+    }
+
+    @GetMapping("/reactive/results/{id}")
+    public Mono<ResultDTO> getById(@PathVariable Long id) {
+        return reactiveResultRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Result not found")));
+    }
+
+    @GetMapping(value = "/reactive/results/participant/{participantId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ResultDTO> getByParticipantId(@PathVariable Long participantId) {
+        return reactiveResultRepository.findAllByParticipantId(participantId);
+    }
+
+    @GetMapping(value = "/reactive/results/discipline/{disciplineId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ResultDTO> getByDisciplineId(@PathVariable Long disciplineId) {
+        return reactiveResultRepository.findAllByDisciplineId(disciplineId);
+    }
+}
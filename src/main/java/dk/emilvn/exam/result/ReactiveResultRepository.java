@@ -0,0 +1,58 @@
+package dk.emilvn.exam.result;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Repository
+public class ReactiveResultRepository {
+    private static final String SELECT = "select id, date, result, result_type, participant_id, discipline_id from result";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveResultRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<ResultDTO> findAll() {
+        return databaseClient.sql(SELECT + " order by id")
+                .map(ReactiveResultRepository::toDTO)
+                .all();
+    }
+
+    public Mono<ResultDTO> findById(Long id) {
+        return databaseClient.sql(SELECT + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveResultRepository::toDTO)
+                .one();
+    }
+
+    public Flux<ResultDTO> findAllByParticipantId(Long participantId) {
+        return databaseClient.sql(SELECT + " where participant_id = :participantId order by id")
+                .bind("participantId", participantId)
+                .map(ReactiveResultRepository::toDTO)
+                .all();
+    }
+
+    public Flux<ResultDTO> findAllByDisciplineId(Long disciplineId) {
+        return databaseClient.sql(SELECT + " where discipline_id = :disciplineId order by id")
+                .bind("disciplineId", disciplineId)
+                .map(ReactiveResultRepository::toDTO)
+                .all();
+    }
+
+    private static ResultDTO toDTO(Readable row) {
+        return new ResultDTO(
+                row.get("id", Long.class),
+                row.get("date", LocalDate.class),
+                row.get("result", Integer.class),
+                ResultType.valueOf(row.get("result_type", String.class)),
+                row.get("participant_id", Long.class),
+                row.get("discipline_id", Long.class)
+        );
+    }
+}
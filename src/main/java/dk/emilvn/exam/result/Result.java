@@ -11,12 +11,19 @@ import lombok.Setter;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_result_discipline_result", columnList = "discipline_id, result"),
+        @Index(name = "idx_result_participant", columnList = "participant_id"),
+        @Index(name = "idx_result_date", columnList = "date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Result {
+    // Sequence-based ids let Hibernate batch inserts, which IDENTITY columns rule out
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "result_seq")
+    @SequenceGenerator(name = "result_seq", sequenceName = "result_seq", allocationSize = 50)
     private Long id;
     private LocalDate date;
     private int result;
@@ -24,10 +31,10 @@ public class Result {
     @Enumerated(EnumType.STRING)
     private ResultType resultType;
 
-    @ManyToOne(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.REFRESH}, fetch = FetchType.EAGER)
+    @ManyToOne(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.REFRESH}, fetch = FetchType.LAZY)
     private Participant participant;
 
-    @ManyToOne(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.REFRESH}, fetch = FetchType.EAGER)
+    @ManyToOne(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.REFRESH}, fetch = FetchType.LAZY)
     private Discipline discipline;
 
     public Result(Long id, LocalDate date, int result, ResultType resultType, Participant participant, Discipline discipline) {
@@ -45,7 +52,7 @@ public class Result {
     }
 
     public void validate(LocalDate date, double result, ResultType resultType, Participant participant, Discipline discipline) {
-        if (date == null || result < 0 || participant == null || discipline == null) {
+        if (date == null || result < 0 || resultType == null || participant == null || discipline == null) {
             throw new IllegalArgumentException("Invalid result");
         }
         if(!participant.hasDiscipline(discipline)) {
@@ -0,0 +1,6 @@
+package dk.emilvn.exam.result;
+
+import java.util.List;
+
+public record ResultBatchDTO(List<ResultDTO> created, List<ResultBatchErrorDTO> errors) {
+}
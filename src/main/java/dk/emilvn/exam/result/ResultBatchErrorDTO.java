@@ -0,0 +1,4 @@
+package dk.emilvn.exam.result;
+
+public record ResultBatchErrorDTO(int index, String message) {
+}
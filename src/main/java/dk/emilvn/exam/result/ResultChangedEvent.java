@@ -0,0 +1,5 @@
+package dk.emilvn.exam.result;
+
+// previous is null for CREATED and current is null for DELETED
+public record ResultChangedEvent(ResultChangeType type, ResultDTO previous, ResultDTO current) {
+}
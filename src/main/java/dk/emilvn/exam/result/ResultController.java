@@ -1,36 +1,111 @@
 package dk.emilvn.exam.result;
 
+import dk.emilvn.exam.cache.JsonResponseCache;
+import dk.emilvn.exam.pagination.KeysetPage;
+import dk.emilvn.exam.participant.AgeGroup;
+import dk.emilvn.exam.version.AggregateVersions;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 public class ResultController {
     private final ResultService resultService;
+    private final ResultExportService resultExportService;
+    private final ResultLiveFeed resultLiveFeed;
+    private final ResultIngestionQueue resultIngestionQueue;
+    private final JsonResponseCache jsonResponseCache;
+    private final AggregateVersions aggregateVersions;
 
-    public ResultController(ResultService resultService) {
+    public ResultController(ResultService resultService, ResultExportService resultExportService, ResultLiveFeed resultLiveFeed, ResultIngestionQueue resultIngestionQueue, JsonResponseCache jsonResponseCache, AggregateVersions aggregateVersions) {
         this.resultService = resultService;
+        this.resultExportService = resultExportService;
+        this.resultLiveFeed = resultLiveFeed;
+        this.resultIngestionQueue = resultIngestionQueue;
+        this.jsonResponseCache = jsonResponseCache;
+        this.aggregateVersions = aggregateVersions;
     }
 
     @GetMapping("/results")
-    public ResponseEntity<List<ResultDTO>> getAll(@RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size) {
+    public ResponseEntity<?> getAll(@RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size, @RequestParam(required = false) String after, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.results())) {
+            return null;
+        }
+        if(after != null) {
+            var resultPage = resultService.findPage(after, size);
+            var response = ResponseEntity.ok();
+            if(resultPage.nextCursor() != null) {
+                response.header(KeysetPage.NEXT_CURSOR_HEADER, resultPage.nextCursor());
+            }
+            return response.body(resultPage.content());
+        }
+        if(jsonResponseCache.isEnabled()) {
+            return jsonResponseCache.get("resultCache", "findAll_" + page + "_" + size, () -> resultService.findAll(page, size), acceptEncoding);
+        }
         return ResponseEntity.ok(resultService.findAll(page, size));
     }
 
+    @GetMapping("/results/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        var exportFormat = ResultExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"results." + exportFormat.getFileExtension() + "\"");
+        resultExportService.export(exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping(value = "/results/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter live(@RequestParam(required = false) Long disciplineId) {
+        return resultLiveFeed.subscribe(disciplineId);
+    }
+
+    @GetMapping("/results/search")
+    public ResponseEntity<List<ResultDTO>> search(
+            @RequestParam(required = false) Long disciplineId,
+            @RequestParam(required = false) Boolean isMale,
+            @RequestParam(required = false) AgeGroup ageGroup,
+            @RequestParam(required = false) String club,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
+    ) {
+        var criteria = new ResultSearchCriteria(disciplineId, isMale, ageGroup, club, from, to);
+        return ResponseEntity.ok(resultService.search(criteria, page, size));
+    }
+
     @GetMapping("/results/{id}")
-    public ResponseEntity<ResultDTO> getById(@PathVariable Long id) {
+    public ResponseEntity<ResultDTO> getById(@PathVariable Long id, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.results())) {
+            return null;
+        }
         return ResponseEntity.ok(resultService.findById(id));
     }
 
     @GetMapping("/results/participant/{participantId}")
-    public ResponseEntity<List<ResultDTO>> getByParticipantId(@PathVariable Long participantId) {
+    public ResponseEntity<List<ResultDTO>> getByParticipantId(@PathVariable Long participantId, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.results())) {
+            return null;
+        }
         return ResponseEntity.ok(resultService.findByParticipantId(participantId));
     }
 
     @GetMapping("/results/discipline/{disciplineId}")
-    public ResponseEntity<List<ResultDTO>> getByDisciplineId(@PathVariable Long disciplineId) {
+    public ResponseEntity<List<ResultDTO>> getByDisciplineId(@PathVariable Long disciplineId, WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.disciplineResults(disciplineId))) {
+            return null;
+        }
         return ResponseEntity.ok(resultService.findByDisciplineId(disciplineId));
     }
 
@@ -39,6 +114,26 @@ public class ResultController {
         return ResponseEntity.status(HttpStatus.CREATED).body(resultService.create(resultDTO));
     }
 
+    @PostMapping("/results/async")
+    public ResponseEntity<ResultTicketDTO> createAsync(@RequestBody ResultDTO resultDTO) {
+        var ticket = resultIngestionQueue.enqueue(resultDTO);
+        return ResponseEntity.accepted()
+                .location(URI.create("/results/tickets/" + ticket.id()))
+                .body(ticket);
+    }
+
+    @GetMapping("/results/tickets/{ticketId}")
+    public ResponseEntity<ResultTicketDTO> getTicket(@PathVariable String ticketId) {
+        return ResponseEntity.ok(resultIngestionQueue.findTicket(ticketId));
+    }
+
+    @PostMapping("/results/batch")
+    public ResponseEntity<ResultBatchDTO> createAll(@RequestBody List<ResultDTO> resultDTOs) {
+        var batch = resultService.createAll(resultDTOs);
+        var status = batch.errors().isEmpty() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(batch);
+    }
+
     @PutMapping("/results/{id}")
     public ResponseEntity<ResultDTO> update(@PathVariable Long id, @RequestBody ResultDTO resultDTO) {
         return ResponseEntity.ok(resultService.update(id, resultDTO));
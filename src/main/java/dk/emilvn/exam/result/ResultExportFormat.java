@@ -0,0 +1,31 @@
+package dk.emilvn.exam.result;
+
+public enum ResultExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ResultExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ResultExportFormat from(String format) {
+        for(var exportFormat : values()) {
+            if(exportFormat.fileExtension.equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+}
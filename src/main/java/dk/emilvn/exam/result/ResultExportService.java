@@ -0,0 +1,79 @@
+package dk.emilvn.exam.result;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes every result to an output stream straight from a database cursor,
+ * so memory use does not grow with the size of the result table.
+ */
+@Service
+public class ResultExportService {
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final ResultRepository resultRepository;
+    private final ObjectWriter resultWriter;
+
+    public ResultExportService(ResultRepository resultRepository, ObjectMapper objectMapper) {
+        this.resultRepository = resultRepository;
+        this.resultWriter = objectMapper.writerFor(ResultDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(ResultExportFormat format, OutputStream outputStream) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        var generator = resultWriter.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if(format == ResultExportFormat.CSV) {
+            writer.write("id,date,result,resultType,participantId,disciplineId\n");
+        }
+
+        // Rows are read as DTO projections, so nothing accumulates in the persistence context while streaming
+        try (var results = resultRepository.streamAllAsDTO()) {
+            var count = 0;
+            for(var iterator = results.iterator(); iterator.hasNext(); ) {
+                var result = iterator.next();
+                if(format == ResultExportFormat.CSV) {
+                    writeCsv(result, writer);
+                } else {
+                    writeJson(result, generator);
+                }
+                if(++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        generator.flush();
+    }
+
+    private void writeJson(ResultDTO result, JsonGenerator generator) throws IOException {
+        resultWriter.writeValue(generator, result);
+        generator.writeRaw('\n');
+    }
+
+    private void writeCsv(ResultDTO result, Writer writer) throws IOException {
+        writer.write(String.valueOf(result.id()));
+        writer.write(',');
+        writer.write(result.date() == null ? "" : result.date().toString());
+        writer.write(',');
+        writer.write(String.valueOf(result.result()));
+        writer.write(',');
+        writer.write(result.resultType() == null ? "" : result.resultType().name());
+        writer.write(',');
+        writer.write(String.valueOf(result.participantId()));
+        writer.write(',');
+        writer.write(String.valueOf(result.disciplineId()));
+        writer.write('\n');
+    }
+}
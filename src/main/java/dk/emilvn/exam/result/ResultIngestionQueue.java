@@ -0,0 +1,175 @@
+package dk.emilvn.exam.result;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dk.emilvn.exam.error.NotFoundException;
+import dk.emilvn.exam.error.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion for the timing desk. Results are acknowledged with a ticket and committed in groups
+ * through {@link ResultService#createAll}, so a group costs one transaction and one cache eviction.
+ */
+@Slf4j
+@Component
+public class ResultIngestionQueue implements SmartLifecycle {
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 500;
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(50);
+    private static final Duration DEFAULT_TICKET_RETENTION = Duration.ofHours(1);
+    private static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final ResultService resultService;
+    private final BlockingQueue<PendingResult> queue;
+    private final Cache<String, ResultTicketDTO> tickets;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Duration shutdownTimeout;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ResultIngestionQueue(ResultService resultService, Environment environment) {
+        this.resultService = resultService;
+        this.queue = new ArrayBlockingQueue<>(environment.getProperty("app.ingest.queue-capacity", Integer.class, DEFAULT_QUEUE_CAPACITY));
+        this.maxBatchSize = environment.getProperty("app.ingest.max-batch-size", Integer.class, DEFAULT_MAX_BATCH_SIZE);
+        this.maxDelayNanos = environment.getProperty("app.ingest.max-delay", Duration.class, DEFAULT_MAX_DELAY).toNanos();
+        this.shutdownTimeout = environment.getProperty("app.ingest.shutdown-timeout", Duration.class, DEFAULT_SHUTDOWN_TIMEOUT);
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(environment.getProperty("app.ingest.ticket-retention", Duration.class, DEFAULT_TICKET_RETENTION))
+                .build();
+    }
+
+    public ResultTicketDTO enqueue(ResultDTO resultDTO) {
+        if(resultDTO == null) {
+            throw new IllegalArgumentException("Result is required");
+        }
+        if(!running) {
+            throw new ServiceUnavailableException("Result ingestion is shutting down");
+        }
+        var ticket = new ResultTicketDTO(UUID.randomUUID().toString(), ResultTicketStatus.PENDING, null, null);
+        tickets.put(ticket.id(), ticket);
+        if(!queue.offer(new PendingResult(ticket.id(), resultDTO))) {
+            tickets.invalidate(ticket.id());
+            throw new ServiceUnavailableException("Result ingestion queue is full");
+        }
+        return ticket;
+    }
+
+    public ResultTicketDTO findTicket(String ticketId) {
+        var ticket = tickets.getIfPresent(ticketId);
+        if(ticket == null) {
+            throw new NotFoundException("Ticket not found");
+        }
+        return ticket;
+    }
+
+    @Override
+    public synchronized void start() {
+        if(running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("result-ingestion").daemon().start(this::run);
+    }
+
+    // Stops taking new results, then commits everything already acknowledged before the datasource closes
+    @Override
+    public synchronized void stop() {
+        if(!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(shutdownTimeout);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        var remaining = new ArrayList<PendingResult>();
+        queue.drainTo(remaining);
+        for(int from = 0; from < remaining.size(); from += maxBatchSize) {
+            commit(remaining.subList(from, Math.min(remaining.size(), from + maxBatchSize)));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower than the web server's phases, so it stops after the server has stopped accepting requests
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void run() {
+        var group = new ArrayList<PendingResult>(maxBatchSize);
+        try {
+            while(running || !queue.isEmpty()) {
+                var first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if(first == null) {
+                    continue;
+                }
+                group.add(first);
+                var deadline = System.nanoTime() + maxDelayNanos;
+                while(group.size() < maxBatchSize) {
+                    var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if(next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+                group.clear();
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commit(List<PendingResult> group) {
+        ResultBatchDTO batch;
+        try {
+            batch = resultService.createAll(group.stream().map(PendingResult::resultDTO).toList());
+        } catch(RuntimeException e) {
+            log.warn("Failed to commit {} queued results", group.size(), e);
+            group.forEach(pending -> tickets.put(pending.ticketId(), failed(pending.ticketId(), e.getMessage())));
+            return;
+        }
+        var errors = new HashMap<Integer, String>();
+        batch.errors().forEach(error -> errors.put(error.index(), error.message()));
+        var created = batch.created().iterator();
+        for(int i = 0; i < group.size(); i++) {
+            var ticketId = group.get(i).ticketId();
+            if(errors.containsKey(i)) {
+                tickets.put(ticketId, failed(ticketId, errors.get(i)));
+            } else {
+                tickets.put(ticketId, new ResultTicketDTO(ticketId, ResultTicketStatus.COMPLETED, created.next().id(), null));
+            }
+        }
+    }
+
+    private static ResultTicketDTO failed(String ticketId, String error) {
+        return new ResultTicketDTO(ticketId, ResultTicketStatus.FAILED, null, error);
+    }
+
+    private record PendingResult(String ticketId, ResultDTO resultDTO) {
+    }
+}
@@ -0,0 +1,90 @@
+package dk.emilvn.exam.result;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.emilvn.exam.sse.SseBroadcaster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Objects;
+
+@Slf4j
+@Component
+public class ResultLiveFeed implements SmartLifecycle {
+    private static final int DEFAULT_BUFFER_SIZE = 64;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(30);
+
+    private final SseBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+    private volatile boolean running;
+
+    public ResultLiveFeed(ObjectMapper objectMapper, Environment environment) {
+        this.objectMapper = objectMapper;
+        this.broadcaster = new SseBroadcaster(
+                environment.getProperty("app.live.buffer-size", Integer.class, DEFAULT_BUFFER_SIZE),
+                environment.getProperty("app.live.timeout", Duration.class, DEFAULT_TIMEOUT)
+        );
+    }
+
+    // A null disciplineId follows every discipline
+    public SseEmitter subscribe(Long disciplineId) {
+        return broadcaster.subscribe(disciplineId);
+    }
+
+    public int getSubscriberCount() {
+        return broadcaster.getSubscriberCount();
+    }
+
+    // A result moved to another discipline leaves the old discipline's feed as a delete.
+    // The write has committed by now, so a failure to publish is logged rather than passed back to the writer.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onResultChanged(ResultChangedEvent event) {
+        try {
+            var previous = event.previous();
+            var current = event.current();
+            if(previous != null && (current == null || !Objects.equals(previous.disciplineId(), current.disciplineId()))) {
+                broadcaster.publish(previous.disciplineId(), toEvent(ResultChangeType.DELETED, previous));
+            }
+            if(current != null) {
+                broadcaster.publish(current.disciplineId(), toEvent(event.type(), current));
+            }
+        } catch(RuntimeException e) {
+            log.warn("Could not publish {} of result to the live feed", event.type(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Runs in the default phase, before the web server's graceful shutdown would wait on open streams
+    @Override
+    public void stop() {
+        running = false;
+        broadcaster.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(ResultChangeType type, ResultDTO result) {
+        try {
+            return SseEmitter.event()
+                    .id(String.valueOf(result.id()))
+                    .name(type.name().toLowerCase())
+                    .data(objectMapper.writeValueAsString(result), MediaType.APPLICATION_JSON);
+        } catch(JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize result " + result.id(), e);
+        }
+    }
+}
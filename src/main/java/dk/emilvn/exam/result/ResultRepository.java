@@ -1,10 +1,54 @@
 package dk.emilvn.exam.result;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ResultRepository extends JpaRepository<Result, Long> {
-    List<Result> findAllByParticipantId(Long participantId);
-    List<Result> findAllByDisciplineId(Long disciplineId);
+public interface ResultRepository extends JpaRepository<Result, Long>, ResultSearchRepository {
+    // Selects only the ResultDTO columns; the participant and discipline ids are read from the foreign keys without joins
+    String SELECT_DTO = "select new dk.emilvn.exam.result.ResultDTO(r.id, r.date, r.result, r.resultType, r.participant.id, r.discipline.id) from Result r";
+
+    @Query(SELECT_DTO)
+    List<ResultDTO> findAllAsDTO();
+
+    @Query(SELECT_DTO)
+    List<ResultDTO> findAllAsDTO(Pageable pageable);
+
+    @Query(SELECT_DTO + " where r.id = :id")
+    Optional<ResultDTO> findAsDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + " where r.participant.id = :participantId")
+    List<ResultDTO> findAllAsDTOByParticipantId(@Param("participantId") Long participantId);
+
+    @Query(SELECT_DTO + " where r.discipline.id = :disciplineId")
+    List<ResultDTO> findAllAsDTOByDisciplineId(@Param("disciplineId") Long disciplineId);
+
+    @Query(SELECT_DTO + " where r.participant.id = :participantId and r.discipline.id = :disciplineId")
+    List<ResultDTO> findAllAsDTOByParticipantIdAndDisciplineId(@Param("participantId") Long participantId, @Param("disciplineId") Long disciplineId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_DTO + " order by r.id")
+    Stream<ResultDTO> streamAllAsDTO();
+
+    @Query(SELECT_DTO + " order by r.discipline.id, r.result, r.id")
+    List<ResultDTO> findFirstPageAsDTO(Limit limit);
+
+    @Query(SELECT_DTO + """
+             where r.discipline.id > :disciplineId
+               or (r.discipline.id = :disciplineId and (r.result > :result or (r.result = :result and r.id > :id)))
+            order by r.discipline.id, r.result, r.id
+            """)
+    List<ResultDTO> findPageAfterAsDTO(@Param("disciplineId") Long disciplineId, @Param("result") int result, @Param("id") Long id, Limit limit);
 }
@@ -0,0 +1,8 @@
+package dk.emilvn.exam.result;
+
+import dk.emilvn.exam.participant.AgeGroup;
+
+import java.time.LocalDate;
+
+public record ResultSearchCriteria(Long disciplineId, Boolean isMale, AgeGroup ageGroup, String club, LocalDate from, LocalDate to) {
+}
@@ -0,0 +1,7 @@
+package dk.emilvn.exam.result;
+
+import java.util.List;
+
+public interface ResultSearchRepository {
+    List<ResultDTO> search(ResultSearchCriteria criteria, ResultType resultType, int page, int size);
+}
@@ -0,0 +1,79 @@
+package dk.emilvn.exam.result;
+
+import dk.emilvn.exam.participant.Participant;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the search query from only the filters that are set, so every predicate can use its index.
+ */
+public class ResultSearchRepositoryImpl implements ResultSearchRepository {
+    private final EntityManager entityManager;
+
+    public ResultSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ResultDTO> search(ResultSearchCriteria criteria, ResultType resultType, int page, int size) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(ResultDTO.class);
+        var result = query.from(Result.class);
+        var predicates = new ArrayList<Predicate>();
+
+        if(criteria.disciplineId() != null) {
+            predicates.add(builder.equal(result.get("discipline").get("id"), criteria.disciplineId()));
+        }
+        if(criteria.from() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(result.get("date"), criteria.from()));
+        }
+        if(criteria.to() != null) {
+            predicates.add(builder.lessThanOrEqualTo(result.get("date"), criteria.to()));
+        }
+        if(criteria.isMale() != null || criteria.ageGroup() != null || criteria.club() != null) {
+            Join<Result, Participant> participant = result.join("participant");
+            if(criteria.isMale() != null) {
+                predicates.add(builder.equal(participant.get("isMale"), criteria.isMale()));
+            }
+            if(criteria.ageGroup() != null) {
+                // Age groups become a birth date range so the birth_date index can be used
+                var today = LocalDate.now();
+                predicates.add(builder.lessThanOrEqualTo(participant.get("birthDate"), criteria.ageGroup().getLatestBirthDate(today)));
+                var earliestBirthDate = criteria.ageGroup().getEarliestBirthDate(today);
+                if(earliestBirthDate != null) {
+                    predicates.add(builder.greaterThanOrEqualTo(participant.get("birthDate"), earliestBirthDate));
+                }
+            }
+            if(criteria.club() != null) {
+                predicates.add(builder.equal(participant.get("club"), criteria.club()));
+            }
+        }
+
+        query.select(builder.construct(ResultDTO.class,
+                        result.get("id"),
+                        result.get("date"),
+                        result.get("result"),
+                        result.get("resultType"),
+                        result.get("participant").get("id"),
+                        result.get("discipline").get("id")))
+                .where(predicates.toArray(Predicate[]::new));
+
+        if(resultType == null) {
+            query.orderBy(builder.desc(result.get("date")), builder.asc(result.get("id")));
+        } else if(resultType.isLowerBetter()) {
+            query.orderBy(builder.asc(result.get("result")), builder.asc(result.get("id")));
+        } else {
+            query.orderBy(builder.desc(result.get("result")), builder.asc(result.get("id")));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
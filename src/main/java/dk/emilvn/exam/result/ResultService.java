@@ -1,27 +1,56 @@
 package dk.emilvn.exam.result;
 
+import dk.emilvn.exam.cache.CacheInvalidator;
+import dk.emilvn.exam.cache.CacheTags;
+import dk.emilvn.exam.columnar.ResultColumnStore;
+import dk.emilvn.exam.discipline.Discipline;
 import dk.emilvn.exam.discipline.DisciplineService;
 import dk.emilvn.exam.error.NotFoundException;
+import dk.emilvn.exam.leaderboard.LeaderboardService;
+import dk.emilvn.exam.participant.Participant;
 import dk.emilvn.exam.participant.ParticipantService;
-import org.springframework.cache.annotation.CacheEvict;
+import dk.emilvn.exam.personalbest.PersonalBestService;
+import dk.emilvn.exam.pagination.KeysetCursor;
+import dk.emilvn.exam.pagination.KeysetPage;
+import dk.emilvn.exam.version.AggregateVersions;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ResultService {
+    private static final int DEFAULT_SEARCH_SIZE = 100;
     private final String cacheName = "resultCache";
     private final ResultRepository resultRepository;
     private final ParticipantService participantService;
     private final DisciplineService disciplineService;
+    private final LeaderboardService leaderboardService;
+    private final CacheInvalidator cacheInvalidator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AggregateVersions aggregateVersions;
+    private final PersonalBestService personalBestService;
+    private final ResultColumnStore resultColumnStore;
 
-    public ResultService(ResultRepository resultRepository, ParticipantService participantService, DisciplineService disciplineService) {
+    public ResultService(ResultRepository resultRepository, ParticipantService participantService, DisciplineService disciplineService, LeaderboardService leaderboardService, CacheInvalidator cacheInvalidator, ApplicationEventPublisher eventPublisher, AggregateVersions aggregateVersions, PersonalBestService personalBestService, ResultColumnStore resultColumnStore) {
         this.resultRepository = resultRepository;
         this.participantService = participantService;
         this.disciplineService = disciplineService;
+        this.leaderboardService = leaderboardService;
+        this.cacheInvalidator = cacheInvalidator;
+        this.eventPublisher = eventPublisher;
+        this.aggregateVersions = aggregateVersions;
+        this.personalBestService = personalBestService;
+        this.resultColumnStore = resultColumnStore;
     }
 
     public ResultDTO toDTO(Result result) {
@@ -53,50 +82,135 @@ public class ResultService {
     @Cacheable(value = cacheName, key = "'findAll'+'_'+#page+'_'+#size", unless = "#result.size() == 0")
     public List<ResultDTO> findAll(Integer page, Integer size) {
         if(page != null && size != null && page >= 0 && size > 0) {
-            return resultRepository
-                    .findAll(PageRequest.of(page, size))
-                    .getContent()
-                    .stream()
-                    .map(this::toDTO)
-                    .toList();
+            return resultRepository.findAllAsDTO(PageRequest.of(page, size));
         }
-        return resultRepository.findAll().stream()
-                .map(this::toDTO)
-                .toList();
+        return resultRepository.findAllAsDTO();
     }
 
-    @Cacheable(value = cacheName, key = "#id", condition="#id > 0L")
+    // Seeks past the (discipline, result, id) of the previous page's last row instead of using OFFSET
+    public KeysetPage<ResultDTO> findPage(String after, Integer size) {
+        var pageSize = KeysetPage.validatePageSize(size);
+        List<ResultDTO> results;
+        if(after == null || after.isEmpty()) {
+            results = resultRepository.findFirstPageAsDTO(Limit.of(pageSize));
+        } else {
+            var key = KeysetCursor.decode(after, 3);
+            results = resultRepository.findPageAfterAsDTO(key[0], Math.toIntExact(key[1]), key[2], Limit.of(pageSize));
+        }
+        String nextCursor = null;
+        if(results.size() == pageSize) {
+            var last = results.getLast();
+            nextCursor = KeysetCursor.encode(last.disciplineId(), last.result(), last.id());
+        }
+        return new KeysetPage<>(results, nextCursor);
+    }
+
+    @Cacheable(value = cacheName, key = "#id", condition="#id > 0L", sync = true)
     public ResultDTO findById(Long id) {
-        return resultRepository.findById(id)
-                .map(this::toDTO)
+        return resultRepository.findAsDTOById(id)
                 .orElseThrow(() -> new NotFoundException("Result not found"));
     }
 
     public List<ResultDTO> findByParticipantId(Long participantId) {
-        return resultRepository.findAllByParticipantId(participantId).stream()
-                .map(this::toDTO)
-                .toList();
+        return resultRepository.findAllAsDTOByParticipantId(participantId);
     }
 
     public List<ResultDTO> findByDisciplineId(Long disciplineId) {
-        return resultRepository.findAllByDisciplineId(disciplineId).stream()
-                .map(this::toDTO)
-                .toList();
+        return resultRepository.findAllAsDTOByDisciplineId(disciplineId);
     }
 
+    // Results are sorted best-first when searching within a discipline, otherwise newest first
+    public List<ResultDTO> search(ResultSearchCriteria criteria, Integer page, Integer size) {
+        var pageNumber = page == null ? 0 : page;
+        var pageSize = size == null ? DEFAULT_SEARCH_SIZE : size;
+        if(pageNumber < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page or size");
+        }
+        if(criteria.from() != null && criteria.to() != null && criteria.from().isAfter(criteria.to())) {
+            throw new IllegalArgumentException("From date must not be after to date");
+        }
+        ResultType resultType = null;
+        if(criteria.disciplineId() != null) {
+            resultType = disciplineService.findById(criteria.disciplineId()).resultType();
+        }
+        return resultRepository.search(criteria, resultType, pageNumber, pageSize);
+    }
+
+    // Writes run in a transaction so the after-commit listeners, cache and version updates only see committed results
+    @Transactional
     @CachePut(value = cacheName, key = "#result.id()")
-    @CacheEvict(value = cacheName, allEntries = true, beforeInvocation = true)
     public ResultDTO create(ResultDTO resultDTO) {
+        cacheInvalidator.evictTags(CacheTags.lists(cacheName));
         var result = fromDTO(resultDTO);
         result = resultRepository.save(result);
-        return toDTO(result);
+        var savedResult = toDTO(result);
+        leaderboardService.update(null, savedResult);
+        personalBestService.update(null, savedResult);
+        resultColumnStore.put(savedResult, result.getParticipant().isMale(), result.getParticipant().getClub());
+        eventPublisher.publishEvent(new ResultChangedEvent(ResultChangeType.CREATED, null, savedResult));
+        bumpVersions(savedResult);
+        return savedResult;
     }
 
+    // Resolves every participant and discipline up front so the whole batch costs two selects plus batched inserts
+    @Transactional
+    public ResultBatchDTO createAll(List<ResultDTO> resultDTOs) {
+        cacheInvalidator.evictTags(CacheTags.lists(cacheName));
+        var participants = participantService.findEntitiesByIds(resultDTOs.stream()
+                        .map(ResultDTO::participantId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Participant::getId, Function.identity()));
+        var disciplines = disciplineService.findEntitiesByIds(resultDTOs.stream()
+                        .map(ResultDTO::disciplineId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Discipline::getId, Function.identity()));
+
+        var results = new ArrayList<Result>(resultDTOs.size());
+        var errors = new ArrayList<ResultBatchErrorDTO>();
+        for(int i = 0; i < resultDTOs.size(); i++) {
+            var resultDTO = resultDTOs.get(i);
+            var participant = resultDTO.participantId() == null ? null : participants.get(resultDTO.participantId());
+            var discipline = resultDTO.disciplineId() == null ? null : disciplines.get(resultDTO.disciplineId());
+            if(participant == null) {
+                errors.add(new ResultBatchErrorDTO(i, "Participant not found"));
+                continue;
+            }
+            if(discipline == null) {
+                errors.add(new ResultBatchErrorDTO(i, "Discipline not found"));
+                continue;
+            }
+            try {
+                results.add(new Result(resultDTO.date(), resultDTO.result(), resultDTO.resultType(), participant, discipline));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ResultBatchErrorDTO(i, e.getMessage()));
+            }
+        }
+
+        var created = resultRepository.saveAll(results).stream()
+                .map(this::toDTO)
+                .toList();
+        for(var savedResult : created) {
+            var participant = participants.get(savedResult.participantId());
+            leaderboardService.update(null, savedResult);
+            personalBestService.update(null, savedResult);
+            resultColumnStore.put(savedResult, participant.isMale(), participant.getClub());
+            eventPublisher.publishEvent(new ResultChangedEvent(ResultChangeType.CREATED, null, savedResult));
+        }
+        bumpVersions(created.toArray(ResultDTO[]::new));
+        return new ResultBatchDTO(created, errors);
+    }
+
+    @Transactional
     @CachePut(value = cacheName, key = "#id")
-    @CacheEvict(value = cacheName, allEntries = true, beforeInvocation = true)
     public ResultDTO update(Long id, ResultDTO resultDTO) {
+        cacheInvalidator.evictTags(CacheTags.result(id));
         var result = resultRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Result not found"));
+        var previous = toDTO(result);
 
         var participantDTO = participantService.findById(resultDTO.participantId());
         var disciplineDTO = disciplineService.findById(resultDTO.disciplineId());
@@ -107,14 +221,22 @@ public class ResultService {
         result.setDiscipline(disciplineService.fromDTO(disciplineDTO));
         result = resultRepository.save(result);
 
-        return toDTO(result);
+        var savedResult = toDTO(result);
+        leaderboardService.update(previous, savedResult);
+        personalBestService.update(previous, savedResult);
+        putColumns(savedResult);
+        eventPublisher.publishEvent(new ResultChangedEvent(ResultChangeType.UPDATED, previous, savedResult));
+        bumpVersions(previous, savedResult);
+        return savedResult;
     }
 
+    @Transactional
     @CachePut(value = cacheName, key = "#id")
-    @CacheEvict(value = cacheName, allEntries = true, beforeInvocation = true)
     public ResultDTO patch(Long id, ResultDTO resultDTO) {
+        cacheInvalidator.evictTags(CacheTags.result(id));
         var result = resultRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Result not found"));
+        var previous = toDTO(result);
 
         if(resultDTO.date() != null) {
             result.setDate(resultDTO.date());
@@ -135,13 +257,42 @@ public class ResultService {
         }
         result = resultRepository.save(result);
 
-        return toDTO(result);
+        var savedResult = toDTO(result);
+        leaderboardService.update(previous, savedResult);
+        personalBestService.update(previous, savedResult);
+        putColumns(savedResult);
+        eventPublisher.publishEvent(new ResultChangedEvent(ResultChangeType.UPDATED, previous, savedResult));
+        bumpVersions(previous, savedResult);
+        return savedResult;
     }
 
-    @CacheEvict(value = cacheName, allEntries = true)
+    @Transactional
     public void delete(Long id) {
-        resultRepository.deleteById(id);
+        resultRepository.findById(id).ifPresent(result -> {
+            var deletedResult = toDTO(result);
+            resultRepository.delete(result);
+            leaderboardService.update(deletedResult, null);
+            personalBestService.update(deletedResult, null);
+            resultColumnStore.remove(id);
+            eventPublisher.publishEvent(new ResultChangedEvent(ResultChangeType.DELETED, deletedResult, null));
+            bumpVersions(deletedResult);
+        });
+        cacheInvalidator.evictTags(CacheTags.result(id), CacheTags.lists(cacheName));
     }
 
+    // The participant may be an uninitialized proxy here, so gender and club come from the cached participant instead
+    private void putColumns(ResultDTO result) {
+        var participant = participantService.findById(result.participantId());
+        resultColumnStore.put(result, participant.isMale(), participant.club());
+    }
 
+    // A moved result changes the lists of both its old and its new discipline
+    private void bumpVersions(ResultDTO... changed) {
+        var keys = new ArrayList<String>();
+        keys.add(AggregateVersions.results());
+        for(var result : changed) {
+            keys.add(AggregateVersions.disciplineResults(result.disciplineId()));
+        }
+        aggregateVersions.bump(keys.stream().distinct().toArray(String[]::new));
+    }
 }
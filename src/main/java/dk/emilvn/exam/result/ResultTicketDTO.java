@@ -0,0 +1,4 @@
+package dk.emilvn.exam.result;
+
+public record ResultTicketDTO(String id, ResultTicketStatus status, Long resultId, String error) {
+}
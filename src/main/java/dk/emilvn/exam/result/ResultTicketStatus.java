@@ -0,0 +1,5 @@
+package dk.emilvn.exam.result;
+
+public enum ResultTicketStatus {
+    PENDING, COMPLETED, FAILED
+}
@@ -1,5 +1,14 @@
 package dk.emilvn.exam.result;
 
 public enum ResultType {
-    TIME_IN_MILLISECONDS, POINTS, HEIGHT_IN_CENTIMETRES, LENGTH_IN_CENTIMETRES, DISTANCE_IN_CENTIMETRES
+    TIME_IN_MILLISECONDS, POINTS, HEIGHT_IN_CENTIMETRES, LENGTH_IN_CENTIMETRES, DISTANCE_IN_CENTIMETRES;
+
+    public boolean isLowerBetter() {
+        return this == TIME_IN_MILLISECONDS;
+    }
+
+    // Negative when a is the better result, positive when b is
+    public int compare(int a, int b) {
+        return isLowerBetter() ? Integer.compare(a, b) : Integer.compare(b, a);
+    }
 }
@@ -0,0 +1,72 @@
+package dk.emilvn.exam.seed;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Inserts rows with explicit ids through batched JDBC statements, bypassing JPA, caches and leaderboards.
+ * Call {@link #resetIdGenerators()} afterwards so rows created through the API don't collide with loaded ids.
+ */
+@Component
+public class BulkLoader {
+    public static final String DISCIPLINE_INSERT = "insert into discipline (id, name, result_type) values (?, ?, ?)";
+    public static final String PARTICIPANT_INSERT = "insert into participant (id, name, is_male, birth_date, club) values (?, ?, ?, ?, ?)";
+    public static final String PARTICIPANT_DISCIPLINE_INSERT = "insert into participant_disciplines (participant_id, disciplines_id) values (?, ?)";
+    public static final String RESULT_INSERT = "insert into result (id, date, result, result_type, participant_id, discipline_id) values (?, ?, ?, ?, ?, ?)";
+
+    // Matches the allocationSize of result_seq, so the first pooled block starts past every loaded id
+    private static final int RESULT_SEQUENCE_INCREMENT = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long insert(String sql, Stream<Object[]> rows, int batchSize) {
+        long count = 0;
+        var batch = new ArrayList<Object[]>(batchSize);
+        for(Iterator<Object[]> iterator = rows.iterator(); iterator.hasNext(); ) {
+            batch.add(iterator.next());
+            if(batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                count += batch.size();
+                batch.clear();
+            }
+        }
+        if(!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            count += batch.size();
+        }
+        return count;
+    }
+
+    public void resetIdGenerators() {
+        var nextDisciplineId = nextId("discipline");
+        var nextParticipantId = nextId("participant");
+        var nextResultId = nextId("result") + RESULT_SEQUENCE_INCREMENT;
+        if(isH2()) {
+            jdbcTemplate.execute("alter table discipline alter column id restart with " + nextDisciplineId);
+            jdbcTemplate.execute("alter table participant alter column id restart with " + nextParticipantId);
+            jdbcTemplate.execute("alter sequence result_seq restart with " + nextResultId);
+        } else {
+            // MySQL moves AUTO_INCREMENT past explicit ids by itself; Hibernate emulates result_seq with a table
+            jdbcTemplate.update("update result_seq set next_val = ?", nextResultId);
+        }
+    }
+
+    private long nextId(String table) {
+        var maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        return maxId == null ? 1 : maxId + 1;
+    }
+
+    private boolean isH2() {
+        var productName = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "H2".equalsIgnoreCase(productName);
+    }
+}
@@ -0,0 +1,22 @@
+package dk.emilvn.exam.seed;
+
+import org.springframework.core.env.Environment;
+
+public record SeedSettings(long randomSeed, int clubs, int participants, int results, int batchSize) {
+
+    public SeedSettings {
+        if(clubs < 1 || participants < 1 || results < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("Seed sizes must be positive");
+        }
+    }
+
+    public static SeedSettings from(Environment environment) {
+        return new SeedSettings(
+                environment.getProperty("app.seed.random-seed", Long.class, 42L),
+                environment.getProperty("app.seed.clubs", Integer.class, 50),
+                environment.getProperty("app.seed.participants", Integer.class, 10_000),
+                environment.getProperty("app.seed.results", Integer.class, 1_000_000),
+                environment.getProperty("app.seed.batch-size", Integer.class, 5_000)
+        );
+    }
+}
@@ -0,0 +1,136 @@
+package dk.emilvn.exam.seed;
+
+import dk.emilvn.exam.result.ResultType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static dk.emilvn.exam.result.ResultType.*;
+
+/**
+ * Generates rows for the discipline, participant, participant_disciplines and result tables.
+ * The same settings always produce the same rows, ids included.
+ */
+public class SyntheticDataGenerator {
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2024, 6, 1);
+    private static final int MIN_AGE = 6;
+    private static final int MAX_AGE = 70;
+    private static final int RESULT_PERIOD_DAYS = 730;
+    private static final int MAX_DISCIPLINES_PER_PARTICIPANT = 4;
+
+    private static final List<DisciplineTemplate> DISCIPLINES = List.of(
+            new DisciplineTemplate("100-meterløb", TIME_IN_MILLISECONDS, 9_800, 20_000),
+            new DisciplineTemplate("Højdespring", HEIGHT_IN_CENTIMETRES, 80, 240),
+            new DisciplineTemplate("Spydkast", DISTANCE_IN_CENTIMETRES, 1_000, 9_000),
+            new DisciplineTemplate("Længdespring", LENGTH_IN_CENTIMETRES, 200, 850),
+            new DisciplineTemplate("Kuglestød", DISTANCE_IN_CENTIMETRES, 500, 2_200),
+            new DisciplineTemplate("400-meterløb", TIME_IN_MILLISECONDS, 44_000, 90_000),
+            new DisciplineTemplate("Diskoskast", DISTANCE_IN_CENTIMETRES, 1_000, 7_000),
+            new DisciplineTemplate("Stangspring", HEIGHT_IN_CENTIMETRES, 150, 600),
+            new DisciplineTemplate("Trespring", LENGTH_IN_CENTIMETRES, 500, 1_800),
+            new DisciplineTemplate("Hammerkast", DISTANCE_IN_CENTIMETRES, 1_000, 8_000),
+            new DisciplineTemplate("800-meterløb", TIME_IN_MILLISECONDS, 100_000, 200_000),
+            new DisciplineTemplate("Decathlon", POINTS, 2_000, 9_000),
+            new DisciplineTemplate("Heptathlon", POINTS, 2_000, 7_000),
+            new DisciplineTemplate("Maraton", TIME_IN_MILLISECONDS, 7_400_000, 21_600_000)
+    );
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Benny", "Clara", "Dennis", "Anders", "Bente", "Claus", "Dorthe", "Erik", "Freja",
+            "Gert", "Helle", "Ib", "Jens", "Kirsten", "Lars", "Mette", "Niels", "Olga", "Peter"
+    };
+    private static final String[] LAST_NAMES = {
+            "Nielsen", "Jensen", "Hansen", "Pedersen", "Andersen", "Christensen", "Larsen", "Sørensen", "Rasmussen", "Jørgensen"
+    };
+    private static final String[] TOWNS = {
+            "Aalborg", "Aarhus", "Ballerup", "Bagsværd", "Copenhagen", "Esbjerg", "Frederiksberg", "Glostrup", "Helsingør", "Ishøj",
+            "Jelling", "Køge", "Lyngby", "Odense", "Roskilde", "Silkeborg", "Vejle", "Viborg", "Horsens", "Randers"
+    };
+
+    private final SeedSettings settings;
+    private final int[][] participantDisciplines;
+
+    public SyntheticDataGenerator(SeedSettings settings) {
+        this.settings = settings;
+        this.participantDisciplines = assignDisciplines(new SplittableRandom(settings.randomSeed()), settings.participants());
+    }
+
+    // (id, name, result_type)
+    public Stream<Object[]> disciplines() {
+        return IntStream.range(0, DISCIPLINES.size())
+                .mapToObj(i -> new Object[]{disciplineId(i), DISCIPLINES.get(i).name(), DISCIPLINES.get(i).resultType().name()});
+    }
+
+    // (id, name, is_male, birth_date, club)
+    public Stream<Object[]> participants() {
+        var random = new SplittableRandom(settings.randomSeed() + 1);
+        var ageRangeDays = (MAX_AGE - MIN_AGE) * 365;
+        return IntStream.range(0, settings.participants())
+                .mapToObj(i -> new Object[]{
+                        participantId(i),
+                        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        random.nextBoolean(),
+                        REFERENCE_DATE.minusYears(MIN_AGE).minusDays(random.nextInt(ageRangeDays)),
+                        club(random.nextInt(settings.clubs()))
+                });
+    }
+
+    // (participant_id, disciplines_id)
+    public Stream<Object[]> participantDisciplines() {
+        return IntStream.range(0, participantDisciplines.length)
+                .boxed()
+                .flatMap(i -> IntStream.of(participantDisciplines[i])
+                        .mapToObj(d -> new Object[]{participantId(i), disciplineId(d)}));
+    }
+
+    // (id, date, result, result_type, participant_id, discipline_id)
+    public Stream<Object[]> results() {
+        var random = new SplittableRandom(settings.randomSeed() + 2);
+        return IntStream.range(0, settings.results())
+                .mapToObj(i -> {
+                    var participant = random.nextInt(participantDisciplines.length);
+                    var assigned = participantDisciplines[participant];
+                    var discipline = assigned[random.nextInt(assigned.length)];
+                    var template = DISCIPLINES.get(discipline);
+                    return new Object[]{
+                            (long) i + 1,
+                            REFERENCE_DATE.minusDays(random.nextInt(RESULT_PERIOD_DAYS)),
+                            random.nextInt(template.min(), template.max() + 1),
+                            template.resultType().name(),
+                            participantId(participant),
+                            disciplineId(discipline)
+                    };
+                });
+    }
+
+    private static int[][] assignDisciplines(SplittableRandom random, int participants) {
+        var assignments = new int[participants][];
+        for(int i = 0; i < participants; i++) {
+            assignments[i] = random.ints(0, DISCIPLINES.size())
+                    .distinct()
+                    .limit(1 + random.nextInt(MAX_DISCIPLINES_PER_PARTICIPANT))
+                    .toArray();
+        }
+        return assignments;
+    }
+
+    private static String club(int index) {
+        var town = TOWNS[index % TOWNS.length];
+        var round = index / TOWNS.length;
+        return round == 0 ? town + " IF" : town + " IF " + (round + 1);
+    }
+
+    private static long disciplineId(int index) {
+        return index + 1L;
+    }
+
+    private static long participantId(int index) {
+        return index + 1L;
+    }
+
+    private record DisciplineTemplate(String name, ResultType resultType, int min, int max) {
+    }
+}
@@ -0,0 +1,55 @@
+package dk.emilvn.exam.seed;
+
+import dk.emilvn.exam.discipline.DisciplineRegistry;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import dk.emilvn.exam.result.ResultRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import static dk.emilvn.exam.seed.BulkLoader.*;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.seed.mode", havingValue = "synthetic")
+public class SyntheticDataSeeder implements CommandLineRunner {
+
+    private final BulkLoader bulkLoader;
+    private final ParticipantRepository participantRepository;
+    private final DisciplineRepository disciplineRepository;
+    private final ResultRepository resultRepository;
+    private final DisciplineRegistry disciplineRegistry;
+    private final Environment environment;
+
+    public SyntheticDataSeeder(BulkLoader bulkLoader, ParticipantRepository participantRepository, DisciplineRepository disciplineRepository, ResultRepository resultRepository, DisciplineRegistry disciplineRegistry, Environment environment) {
+        this.bulkLoader = bulkLoader;
+        this.participantRepository = participantRepository;
+        this.disciplineRepository = disciplineRepository;
+        this.resultRepository = resultRepository;
+        this.disciplineRegistry = disciplineRegistry;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(String... args) {
+        if(participantRepository.count() == 0 && disciplineRepository.count() == 0 && resultRepository.count() == 0) {
+            seed(SeedSettings.from(environment));
+        }
+    }
+
+    public void seed(SeedSettings settings) {
+        var start = System.nanoTime();
+        var generator = new SyntheticDataGenerator(settings);
+        var disciplines = bulkLoader.insert(DISCIPLINE_INSERT, generator.disciplines(), settings.batchSize());
+        var participants = bulkLoader.insert(PARTICIPANT_INSERT, generator.participants(), settings.batchSize());
+        bulkLoader.insert(PARTICIPANT_DISCIPLINE_INSERT, generator.participantDisciplines(), settings.batchSize());
+        var results = bulkLoader.insert(RESULT_INSERT, generator.results(), settings.batchSize());
+        bulkLoader.resetIdGenerators();
+        disciplineRegistry.reload();
+        log.info("Seeded {} disciplines, {} participants and {} results in {} ms",
+                disciplines, participants, results, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,6 @@
+package dk.emilvn.exam.snapshot;
+
+import java.time.Instant;
+
+public record SnapshotDTO(String path, Instant createdAt, long disciplineCount, long participantCount, long assignmentCount, long resultCount, long bytes) {
+}
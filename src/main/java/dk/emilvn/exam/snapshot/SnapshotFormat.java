@@ -0,0 +1,26 @@
+package dk.emilvn.exam.snapshot;
+
+/**
+ * Layout of a snapshot file, big-endian throughout:
+ * <pre>
+ * header       int magic, short version, long created epoch millis, byte n, n result type names
+ * disciplines  long id, string name, byte result type
+ * participants long id, string name, byte is male, int birth epoch day, string club
+ * assignments  long participant id, long discipline id
+ * results      long id, int epoch day, int result, byte result type, long participant id, long discipline id
+ * trailer      long discipline, participant, assignment and result counts, int CRC32 of every preceding byte
+ * </pre>
+ * Strings are an int byte length followed by UTF-8, with a length of -1 for null. Result types are stored as
+ * their index in the header, so reordering the enum does not corrupt older snapshots.
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x45585342;
+    static final short VERSION = 1;
+    static final int NULL_LENGTH = -1;
+    static final int NULL_DATE = Integer.MIN_VALUE;
+    static final int TRAILER_SIZE = 4 * Long.BYTES + Integer.BYTES;
+    static final int MIN_SIZE = Integer.BYTES + Short.BYTES + Long.BYTES + Byte.BYTES + TRAILER_SIZE;
+
+    private SnapshotFormat() {
+    }
+}
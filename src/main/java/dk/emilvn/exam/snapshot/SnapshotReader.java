@@ -0,0 +1,145 @@
+package dk.emilvn.exam.snapshot;
+
+import dk.emilvn.exam.result.ResultType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+
+import static dk.emilvn.exam.snapshot.SnapshotFormat.*;
+
+/**
+ * Reads a snapshot file that has passed its checksum. Files at or above the mmap threshold are memory-mapped,
+ * so the page cache backs the buffer instead of a heap copy; smaller files are read into the heap in one go.
+ */
+final class SnapshotReader {
+    private final ByteBuffer buffer;
+    private final Instant createdAt;
+    private final ResultType[] resultTypes;
+    private final long disciplineCount;
+    private final long participantCount;
+    private final long assignmentCount;
+    private final long resultCount;
+
+    private SnapshotReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        int trailer = buffer.limit() - TRAILER_SIZE;
+        disciplineCount = buffer.getLong(trailer);
+        participantCount = buffer.getLong(trailer + Long.BYTES);
+        assignmentCount = buffer.getLong(trailer + 2 * Long.BYTES);
+        resultCount = buffer.getLong(trailer + 3 * Long.BYTES);
+        buffer.limit(trailer);
+        buffer.position(Integer.BYTES + Short.BYTES);
+        createdAt = Instant.ofEpochMilli(buffer.getLong());
+        resultTypes = new ResultType[buffer.get()];
+        for(int i = 0; i < resultTypes.length; i++) {
+            resultTypes[i] = ResultType.valueOf(getString());
+        }
+    }
+
+    static SnapshotReader open(Path path, long mmapThreshold) throws IOException {
+        ByteBuffer buffer;
+        try(var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size < MIN_SIZE || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot " + path + " has an invalid size of " + size + " bytes");
+            }
+            if(size >= mmapThreshold) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while(buffer.hasRemaining()) {
+                    if(channel.read(buffer) < 0) {
+                        throw new IllegalStateException("Snapshot " + path + " was truncated while reading");
+                    }
+                }
+                buffer.flip();
+            }
+        }
+        verify(path, buffer);
+        return new SnapshotReader(buffer);
+    }
+
+    // Checked before a single row is read, so a torn or corrupt file never gets partially restored
+    private static void verify(Path path, ByteBuffer buffer) {
+        if(buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException(path + " is not a snapshot");
+        }
+        if(buffer.getShort(Integer.BYTES) != VERSION) {
+            throw new IllegalStateException("Snapshot " + path + " has unsupported version " + buffer.getShort(Integer.BYTES));
+        }
+        int checksumOffset = buffer.limit() - Integer.BYTES;
+        var crc = new CRC32();
+        crc.update(buffer.slice(0, checksumOffset));
+        if((int) crc.getValue() != buffer.getInt(checksumOffset)) {
+            throw new IllegalStateException("Snapshot " + path + " is corrupt: checksum mismatch");
+        }
+    }
+
+    Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    long getDisciplineCount() {
+        return disciplineCount;
+    }
+
+    long getParticipantCount() {
+        return participantCount;
+    }
+
+    long getAssignmentCount() {
+        return assignmentCount;
+    }
+
+    long getResultCount() {
+        return resultCount;
+    }
+
+    long getSize() {
+        return buffer.capacity();
+    }
+
+    // Row readers return columns in the order of the BulkLoader insert statements and must be called section by section
+
+    Object[] nextDiscipline() {
+        return new Object[]{buffer.getLong(), getString(), resultTypes[buffer.get()].name()};
+    }
+
+    Object[] nextParticipant() {
+        return new Object[]{buffer.getLong(), getString(), buffer.get() != 0, getDate(), getString()};
+    }
+
+    Object[] nextAssignment() {
+        return new Object[]{buffer.getLong(), buffer.getLong()};
+    }
+
+    Object[] nextResult() {
+        var id = buffer.getLong();
+        var date = getDate();
+        var result = buffer.getInt();
+        var resultType = resultTypes[buffer.get()].name();
+        return new Object[]{id, date, result, resultType, buffer.getLong(), buffer.getLong()};
+    }
+
+    private LocalDate getDate() {
+        int epochDay = buffer.getInt();
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private String getString() {
+        int length = buffer.getInt();
+        if(length == NULL_LENGTH) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
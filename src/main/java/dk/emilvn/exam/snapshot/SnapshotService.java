@@ -0,0 +1,262 @@
+package dk.emilvn.exam.snapshot;
+
+import dk.emilvn.exam.discipline.DisciplineRegistry;
+import dk.emilvn.exam.result.ResultType;
+import dk.emilvn.exam.seed.BulkLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static dk.emilvn.exam.seed.BulkLoader.*;
+import static dk.emilvn.exam.snapshot.SnapshotFormat.*;
+
+/**
+ * Writes disciplines, participants, their discipline assignments and results to a binary snapshot file,
+ * periodically, on request and on shutdown, and restores the latest one into the empty database on startup.
+ * Restoring runs before the seeders, which then find the database populated and leave it alone.
+ */
+@Slf4j
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.snapshot.enabled", havingValue = "true")
+public class SnapshotService implements CommandLineRunner, SmartLifecycle {
+    private static final int FETCH_SIZE = 1000;
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(5);
+    private static final int DEFAULT_BATCH_SIZE = 5_000;
+    private static final DataSize DEFAULT_MMAP_THRESHOLD = DataSize.ofMegabytes(64);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkLoader bulkLoader;
+    private final DisciplineRegistry disciplineRegistry;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Path path;
+    private final Duration interval;
+    private final boolean snapshotOnShutdown;
+    private final int batchSize;
+    private final long mmapThreshold;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    // Until the startup restore has run the database may still be empty, and a snapshot would overwrite the one to restore
+    private volatile boolean ready;
+
+    public SnapshotService(DataSource dataSource, BulkLoader bulkLoader, DisciplineRegistry disciplineRegistry, PlatformTransactionManager transactionManager, Environment environment) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.bulkLoader = bulkLoader;
+        this.disciplineRegistry = disciplineRegistry;
+        // Repeatable read gives every table the same point in time, so assignments and results never refer to missing rows
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.path = Path.of(environment.getProperty("app.snapshot.path", "data/snapshot.bin"));
+        this.interval = environment.getProperty("app.snapshot.interval", Duration.class, DEFAULT_INTERVAL);
+        this.snapshotOnShutdown = environment.getProperty("app.snapshot.on-shutdown", Boolean.class, true);
+        this.batchSize = environment.getProperty("app.snapshot.batch-size", Integer.class, DEFAULT_BATCH_SIZE);
+        this.mmapThreshold = environment.getProperty("app.snapshot.mmap-threshold", DataSize.class, DEFAULT_MMAP_THRESHOLD).toBytes();
+    }
+
+    @Override
+    public void run(String... args) {
+        if(Files.exists(path) && isDatabaseEmpty()) {
+            restore(path);
+        }
+        ready = true;
+    }
+
+    // Written to a temporary file and moved into place, so a crash mid-write leaves the previous snapshot intact
+    public synchronized SnapshotDTO snapshot() {
+        if(!ready) {
+            throw new IllegalStateException("Snapshots are not taken before the startup restore has finished");
+        }
+        var start = System.nanoTime();
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if(path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            SnapshotDTO snapshot;
+            try(var writer = new SnapshotWriter(temporary)) {
+                snapshot = readTransaction.execute(status -> write(writer));
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote snapshot of {} disciplines, {} participants and {} results ({} bytes) to {} in {} ms",
+                    snapshot.disciplineCount(), snapshot.participantCount(), snapshot.resultCount(), snapshot.bytes(), path, (System.nanoTime() - start) / 1_000_000);
+            return snapshot;
+        } catch(IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + path, e);
+        }
+    }
+
+    private SnapshotDTO write(SnapshotWriter writer) {
+        var createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        writer.putInt(MAGIC);
+        writer.putShort(VERSION);
+        writer.putLong(createdAt.toEpochMilli());
+        writer.putByte((byte) ResultType.values().length);
+        for(var resultType : ResultType.values()) {
+            writer.putString(resultType.name());
+        }
+
+        var disciplines = new long[1];
+        jdbcTemplate.query("select id, name, result_type from discipline order by id", rs -> {
+            writer.putLong(rs.getLong("id"));
+            writer.putString(rs.getString("name"));
+            writer.putByte(resultTypeIndex(rs.getString("result_type")));
+            disciplines[0]++;
+        });
+        var participants = new long[1];
+        jdbcTemplate.query("select id, name, is_male, birth_date, club from participant order by id", rs -> {
+            writer.putLong(rs.getLong("id"));
+            writer.putString(rs.getString("name"));
+            writer.putByte((byte) (rs.getBoolean("is_male") ? 1 : 0));
+            writer.putInt(epochDay(rs.getObject("birth_date", LocalDate.class)));
+            writer.putString(rs.getString("club"));
+            participants[0]++;
+        });
+        var assignments = new long[1];
+        jdbcTemplate.query("select participant_id, disciplines_id from participant_disciplines order by participant_id, disciplines_id", rs -> {
+            writer.putLong(rs.getLong("participant_id"));
+            writer.putLong(rs.getLong("disciplines_id"));
+            assignments[0]++;
+        });
+        var results = new long[1];
+        jdbcTemplate.query("select id, date, result, result_type, participant_id, discipline_id from result order by id", rs -> {
+            writer.putLong(rs.getLong("id"));
+            writer.putInt(epochDay(rs.getObject("date", LocalDate.class)));
+            writer.putInt(rs.getInt("result"));
+            writer.putByte(resultTypeIndex(rs.getString("result_type")));
+            writer.putLong(rs.getLong("participant_id"));
+            writer.putLong(rs.getLong("discipline_id"));
+            results[0]++;
+        });
+
+        writer.putLong(disciplines[0]);
+        writer.putLong(participants[0]);
+        writer.putLong(assignments[0]);
+        writer.putLong(results[0]);
+        var bytes = writer.finish();
+        return new SnapshotDTO(path.toString(), createdAt, disciplines[0], participants[0], assignments[0], results[0], bytes);
+    }
+
+    // The whole file is checksummed before the first insert, and the inserts share one transaction,
+    // so a failed restore leaves the database as empty as it found it
+    synchronized SnapshotDTO restore(Path source) {
+        if(!isDatabaseEmpty()) {
+            throw new IllegalStateException("Snapshots can only be restored into an empty database");
+        }
+        var start = System.nanoTime();
+        SnapshotReader reader;
+        try {
+            reader = SnapshotReader.open(source, mmapThreshold);
+        } catch(IOException e) {
+            throw new UncheckedIOException("Could not read snapshot " + source, e);
+        }
+        writeTransaction.executeWithoutResult(status -> {
+            bulkLoader.insert(DISCIPLINE_INSERT, LongStream.range(0, reader.getDisciplineCount()).mapToObj(i -> reader.nextDiscipline()), batchSize);
+            bulkLoader.insert(PARTICIPANT_INSERT, LongStream.range(0, reader.getParticipantCount()).mapToObj(i -> reader.nextParticipant()), batchSize);
+            bulkLoader.insert(PARTICIPANT_DISCIPLINE_INSERT, LongStream.range(0, reader.getAssignmentCount()).mapToObj(i -> reader.nextAssignment()), batchSize);
+            bulkLoader.insert(RESULT_INSERT, LongStream.range(0, reader.getResultCount()).mapToObj(i -> reader.nextResult()), batchSize);
+        });
+        bulkLoader.resetIdGenerators();
+        disciplineRegistry.reload();
+        log.info("Restored {} disciplines, {} participants and {} results from the snapshot taken at {} in {} ms",
+                reader.getDisciplineCount(), reader.getParticipantCount(), reader.getResultCount(), reader.getCreatedAt(), (System.nanoTime() - start) / 1_000_000);
+        return new SnapshotDTO(source.toString(), reader.getCreatedAt(), reader.getDisciplineCount(), reader.getParticipantCount(),
+                reader.getAssignmentCount(), reader.getResultCount(), reader.getSize());
+    }
+
+    @Override
+    public synchronized void start() {
+        if(running) {
+            return;
+        }
+        running = true;
+        if(!interval.isZero()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("snapshot").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::scheduledSnapshot, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Takes a last snapshot once ingestion has drained, while the datasource is still open
+    @Override
+    public synchronized void stop() {
+        if(!running) {
+            return;
+        }
+        running = false;
+        if(scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if(snapshotOnShutdown && ready) {
+            try {
+                snapshot();
+            } catch(RuntimeException e) {
+                log.warn("Could not write snapshot on shutdown", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower than the ingestion queue's phase, so it stops after the queue has committed what it acknowledged
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    private void scheduledSnapshot() {
+        if(!ready) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch(RuntimeException e) {
+            // Thrown out of the task, it would cancel every later run
+            log.warn("Could not write scheduled snapshot", e);
+        }
+    }
+
+    private boolean isDatabaseEmpty() {
+        return jdbcTemplate.queryForObject(
+                "select (select count(*) from discipline) + (select count(*) from participant) + (select count(*) from result)", Long.class) == 0;
+    }
+
+    private static byte resultTypeIndex(String resultType) {
+        return (byte) ResultType.valueOf(resultType).ordinal();
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay());
+    }
+}
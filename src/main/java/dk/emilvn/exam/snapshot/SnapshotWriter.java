@@ -0,0 +1,101 @@
+package dk.emilvn.exam.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import static dk.emilvn.exam.snapshot.SnapshotFormat.NULL_LENGTH;
+
+/**
+ * Appends primitives to a snapshot file through one reusable direct buffer, checksumming every full buffer
+ * before it is written. Failures are unchecked so rows can be written from JDBC callbacks.
+ */
+final class SnapshotWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private long size;
+
+    SnapshotWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    void putByte(byte value) {
+        ensure(Byte.BYTES);
+        buffer.put(value);
+    }
+
+    void putShort(short value) {
+        ensure(Short.BYTES);
+        buffer.putShort(value);
+    }
+
+    void putInt(int value) {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putString(String value) {
+        if(value == null) {
+            putInt(NULL_LENGTH);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        for(int offset = 0; offset < bytes.length; ) {
+            ensure(Byte.BYTES);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    // Writes the checksum of everything before it and forces the file to disk; returns the file size
+    long finish() {
+        flush();
+        buffer.putInt((int) crc.getValue());
+        flush();
+        try {
+            channel.force(false);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void ensure(int bytes) {
+        if(buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        try {
+            while(buffer.hasRemaining()) {
+                size += channel.write(buffer);
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,39 @@
+package dk.emilvn.exam.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Logs one summary line per request that touched the database, in place of a line per statement.
+ */
+@Slf4j
+public class SqlTraceFilter extends OncePerRequestFilter {
+    private final SqlTraceListener sqlTraceListener;
+
+    public SqlTraceFilter(SqlTraceListener sqlTraceListener) {
+        this.sqlTraceListener = sqlTraceListener;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        sqlTraceListener.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            var summary = sqlTraceListener.stop();
+            if(summary.statements() > 0 && log.isInfoEnabled()) {
+                var uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                log.info("{} {} {}: {} statements, {} ms in database",
+                        request.getMethod(), uri == null ? request.getRequestURI() : uri, response.getStatus(),
+                        summary.statements(), SqlTraceListener.millis(summary.nanos()));
+            }
+        }
+    }
+}
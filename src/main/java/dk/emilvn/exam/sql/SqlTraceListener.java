@@ -0,0 +1,90 @@
+package dk.emilvn.exam.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Times every statement, adds it to the current request's summary, and logs slow statements plus a random sample of the rest.
+ * Output goes to the dk.emilvn.exam.sql logger, which logback-spring.xml routes through a non-blocking async appender.
+ */
+@Slf4j
+public class SqlTraceListener implements QueryExecutionListener {
+    private static final String START_NANOS = "startNanos";
+    private static final ThreadLocal<Summary> SUMMARY = new ThreadLocal<>();
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final boolean captureParameters;
+
+    public SqlTraceListener(double sampleRate, Duration slowThreshold, boolean captureParameters) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.captureParameters = captureParameters;
+    }
+
+    public record Summary(int statements, long nanos) {
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfos) {
+        executionInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfos) {
+        var elapsed = System.nanoTime() - executionInfo.getCustomValue(START_NANOS, Long.class);
+        var summary = SUMMARY.get();
+        if(summary != null) {
+            SUMMARY.set(new Summary(summary.statements() + 1, summary.nanos() + elapsed));
+        }
+
+        if(elapsed >= slowThresholdNanos) {
+            if(log.isWarnEnabled()) {
+                log.warn("Slow statement, {} ms: {}", millis(elapsed), describe(executionInfo, queryInfos));
+            }
+        } else if(sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && log.isInfoEnabled()) {
+            log.info("{} ms: {}", millis(elapsed), describe(executionInfo, queryInfos));
+        }
+    }
+
+    public void start() {
+        SUMMARY.set(new Summary(0, 0));
+    }
+
+    public Summary stop() {
+        var summary = SUMMARY.get();
+        SUMMARY.remove();
+        return summary == null ? new Summary(0, 0) : summary;
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    private String describe(ExecutionInfo executionInfo, List<QueryInfo> queryInfos) {
+        var description = queryInfos.stream()
+                .map(this::describe)
+                .collect(Collectors.joining("; "));
+        return executionInfo.isBatch() ? "batch of " + executionInfo.getBatchSize() + ": " + description : description;
+    }
+
+    // Batched statements repeat the same SQL per parameter set, so only the first set is shown
+    private String describe(QueryInfo queryInfo) {
+        if(!captureParameters || queryInfo.getParametersList().isEmpty()) {
+            return queryInfo.getQuery();
+        }
+        var parameters = queryInfo.getParametersList().get(0).stream()
+                .filter(operation -> !ParameterSetOperation.isRegisterOutParameterOperation(operation))
+                .map(operation -> ParameterSetOperation.isSetNullParameterOperation(operation) ? "null" : String.valueOf(operation.getArgs()[1]))
+                .collect(Collectors.joining(", ", " [", "]"));
+        return queryInfo.getQuery() + parameters;
+    }
+}
@@ -0,0 +1,121 @@
+package dk.emilvn.exam.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans one built event out to every subscriber of a topic; subscribers with a null topic receive everything.
+ * Each subscriber has a bounded buffer drained by its own virtual thread, so a slow client never blocks
+ * the publisher. A client whose buffer fills up is disconnected and can reconnect to resync.
+ */
+public class SseBroadcaster {
+    private static final Duration RECONNECT_TIME = Duration.ofSeconds(3);
+
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder droppedCount = new LongAdder();
+
+    public SseBroadcaster(int bufferSize, Duration timeout) {
+        if(bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(Object topic) {
+        var subscriber = new Subscriber(topic, new SseEmitter(timeout.toMillis()));
+        subscribers.add(subscriber);
+        subscriber.start();
+        // The response isn't committed until something is written, so clients would otherwise wait for the first change
+        subscriber.offer(SseEmitter.event().reconnectTime(RECONNECT_TIME.toMillis()).build());
+        return subscriber.emitter;
+    }
+
+    public void publish(Object topic, SseEmitter.SseEventBuilder event) {
+        var frame = event.build();
+        for(var subscriber : subscribers) {
+            if(subscriber.topic == null || Objects.equals(subscriber.topic, topic)) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public void close() {
+        subscribers.forEach(Subscriber::complete);
+    }
+
+    private final class Subscriber {
+        private final Object topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread writer;
+
+        private Subscriber(Object topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::complete);
+            emitter.onError(e -> close());
+            writer = Thread.ofVirtual().name("sse-subscriber").start(this::drain);
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if(!buffer.offer(frame)) {
+                droppedCount.increment();
+                complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                while(!closed.get()) {
+                    emitter.send(buffer.take());
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch(IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private void complete() {
+            if(!closed.get()) {
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void close() {
+            if(closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                if(writer != null) {
+                    writer.interrupt();
+                }
+            }
+        }
+    }
+}
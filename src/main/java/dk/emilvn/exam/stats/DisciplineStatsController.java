@@ -0,0 +1,34 @@
+package dk.emilvn.exam.stats;
+
+import dk.emilvn.exam.version.AggregateVersions;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+public class DisciplineStatsController {
+    private final DisciplineStatsService disciplineStatsService;
+    private final AggregateVersions aggregateVersions;
+
+    public DisciplineStatsController(DisciplineStatsService disciplineStatsService, AggregateVersions aggregateVersions) {
+        this.disciplineStatsService = disciplineStatsService;
+        this.aggregateVersions = aggregateVersions;
+    }
+
+    @GetMapping("/disciplines/{id}/stats")
+    public ResponseEntity<DisciplineStatsDTO> getStats(
+            @PathVariable Long id,
+            @RequestParam(required = false) Boolean isMale,
+            @RequestParam(required = false) String club,
+            @RequestParam(required = false) Integer season,
+            @RequestParam(required = false) Integer buckets,
+            WebRequest request) {
+        if(aggregateVersions.checkNotModified(request, AggregateVersions.disciplineResults(id))) {
+            return null;
+        }
+        return ResponseEntity.ok(disciplineStatsService.getStats(id, isMale, club, season, buckets));
+    }
+}
@@ -0,0 +1,6 @@
+package dk.emilvn.exam.stats;
+
+import java.util.List;
+
+public record DisciplineStatsDTO(Long disciplineId, Boolean isMale, String club, Integer season, int count, Double mean, Integer median, Integer p10, Integer p90, List<HistogramBucketDTO> histogram) {
+}
@@ -0,0 +1,109 @@
+package dk.emilvn.exam.stats;
+
+import dk.emilvn.exam.columnar.ResultColumnStore;
+import dk.emilvn.exam.discipline.DisciplineService;
+import dk.emilvn.exam.result.ResultChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class DisciplineStatsService {
+    private static final int DEFAULT_BUCKETS = 10;
+    private static final int MAX_BUCKETS = 100;
+
+    // Stats are cached per discipline, and a write drops the discipline's whole map so a computation
+    // that read the columns before the write can only store its result in the dropped map
+    private final Map<Long, Map<String, DisciplineStatsDTO>> stats = new ConcurrentHashMap<>();
+    private final ResultColumnStore resultColumnStore;
+    private final DisciplineService disciplineService;
+    private volatile long storeGeneration;
+
+    public DisciplineStatsService(ResultColumnStore resultColumnStore, DisciplineService disciplineService) {
+        this.resultColumnStore = resultColumnStore;
+        this.disciplineService = disciplineService;
+    }
+
+    public DisciplineStatsDTO getStats(Long disciplineId, Boolean isMale, String club, Integer season, Integer buckets) {
+        var bucketCount = buckets == null ? DEFAULT_BUCKETS : buckets;
+        if(bucketCount < 1 || bucketCount > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Buckets must be between 1 and " + MAX_BUCKETS);
+        }
+        disciplineService.findById(disciplineId);
+        // A reload or participant write can change results in any discipline, for instance moving them between gender and club filters
+        var generation = resultColumnStore.getGeneration();
+        if(generation != storeGeneration) {
+            storeGeneration = generation;
+            stats.clear();
+        }
+        var from = season == null ? null : LocalDate.of(season, 1, 1);
+        var to = season == null ? null : LocalDate.of(season + 1, 1, 1);
+        return stats.computeIfAbsent(disciplineId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(isMale + "_" + club + "_" + season + "_" + bucketCount,
+                        key -> compute(disciplineId, isMale, club, season, bucketCount, resultColumnStore.selectResults(disciplineId, isMale, club, from, to)));
+    }
+
+    // Only the disciplines a write touched are dropped. The store applies the write before this listener runs.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onResultChanged(ResultChangedEvent event) {
+        if(event.previous() != null) {
+            stats.remove(event.previous().disciplineId());
+        }
+        if(event.current() != null) {
+            stats.remove(event.current().disciplineId());
+        }
+    }
+
+
+    // Quantiles use the nearest-rank method, selected around the median so each selection only scans one side of the last
+    private DisciplineStatsDTO compute(Long disciplineId, Boolean isMale, String club, Integer season, int buckets, int[] results) {
+        int count = results.length;
+        if(count == 0) {
+            return new DisciplineStatsDTO(disciplineId, isMale, club, season, 0, null, null, null, null, List.of());
+        }
+        long sum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for(int result : results) {
+            sum += result;
+            min = Math.min(min, result);
+            max = Math.max(max, result);
+        }
+        var histogram = histogram(results, min, max, buckets);
+
+        int medianRank = rank(0.5, count);
+        int median = Quickselect.select(results, 0, count - 1, medianRank);
+        int p10Rank = rank(0.1, count);
+        int p10 = p10Rank == medianRank ? median : Quickselect.select(results, 0, medianRank - 1, p10Rank);
+        int p90Rank = rank(0.9, count);
+        int p90 = p90Rank == medianRank ? median : Quickselect.select(results, medianRank + 1, count - 1, p90Rank);
+
+        return new DisciplineStatsDTO(disciplineId, isMale, club, season, count, (double) sum / count, median, p10, p90, histogram);
+    }
+
+    private static int rank(double quantile, int count) {
+        return Math.max(0, (int) Math.ceil(quantile * count) - 1);
+    }
+
+    // Equal-width buckets from the lowest to the highest result
+    private static List<HistogramBucketDTO> histogram(int[] results, int min, int max, int buckets) {
+        long range = (long) max - min + 1;
+        long width = (range + buckets - 1) / buckets;
+        int bucketCount = (int) ((range + width - 1) / width);
+        var counts = new int[bucketCount];
+        for(int result : results) {
+            counts[(int) ((result - (long) min) / width)]++;
+        }
+        var histogram = new ArrayList<HistogramBucketDTO>(bucketCount);
+        for(int i = 0; i < bucketCount; i++) {
+            histogram.add(new HistogramBucketDTO((int) (min + i * width), (int) Math.min(Integer.MAX_VALUE, min + (i + 1) * width), counts[i]));
+        }
+        return histogram;
+    }
+}
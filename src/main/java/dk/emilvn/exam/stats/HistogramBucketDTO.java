@@ -0,0 +1,5 @@
+package dk.emilvn.exam.stats;
+
+// Covers results from inclusive to exclusive
+public record HistogramBucketDTO(int from, int to, int count) {
+}
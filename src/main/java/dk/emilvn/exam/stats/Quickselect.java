@@ -0,0 +1,48 @@
+package dk.emilvn.exam.stats;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Finds the k-th smallest value in expected linear time by partitioning in place instead of sorting.
+ * Afterwards everything before index k is no larger and everything after it no smaller,
+ * so further selections can be limited to one side.
+ */
+final class Quickselect {
+
+    private Quickselect() {
+    }
+
+    // Selects within values[left..right], both inclusive
+    static int select(int[] values, int left, int right, int k) {
+        var random = ThreadLocalRandom.current();
+        while(left < right) {
+            int pivot = values[left + random.nextInt(right - left + 1)];
+            int i = left;
+            int j = right;
+            while(i <= j) {
+                while(values[i] < pivot) {
+                    i++;
+                }
+                while(values[j] > pivot) {
+                    j--;
+                }
+                if(i <= j) {
+                    int swap = values[i];
+                    values[i] = values[j];
+                    values[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            // values[left..j] <= pivot, values[i..right] >= pivot and anything in between equals the pivot
+            if(k <= j) {
+                right = j;
+            } else if(k >= i) {
+                left = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+}
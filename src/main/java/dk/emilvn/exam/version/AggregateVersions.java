@@ -0,0 +1,83 @@
+package dk.emilvn.exam.version;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Monotonic version counters per aggregate, used to answer conditional GETs without loading or serializing anything.
+ * ETags combine the counters a response was built from with a per-boot epoch, so counters restarting from zero
+ * never produce an ETag a client saw before the restart. The ETags are weak, since one version may be served both
+ * gzip-encoded and as identity, and those bodies differ byte for byte.
+ */
+@Component
+public class AggregateVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Instant started = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    private record Version(long counter, Instant modified) {
+    }
+
+    public static String disciplines() {
+        return "disciplines";
+    }
+
+    public static String participants() {
+        return "participants";
+    }
+
+    public static String participant(Long id) {
+        return "participant:" + id;
+    }
+
+    public static String results() {
+        return "results";
+    }
+
+    public static String disciplineResults(Long disciplineId) {
+        return "results:discipline:" + disciplineId;
+    }
+
+    // Inside a transaction the bump waits for the commit, so a reader can never pair the new ETag with the old data
+    public void bump(String... keys) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(keys);
+                }
+            });
+        } else {
+            increment(keys);
+        }
+    }
+
+    // Sets ETag and Last-Modified on the response, and a 304 status when the client's copy is current
+    public boolean checkNotModified(WebRequest request, String... keys) {
+        var etag = new StringBuilder("W/\"").append(epoch);
+        var lastModified = started;
+        for(var key : keys) {
+            var version = versions.get(key);
+            etag.append('-').append(version == null ? "0" : Long.toString(version.counter(), 36));
+            if(version != null && version.modified().isAfter(lastModified)) {
+                lastModified = version.modified();
+            }
+        }
+        return request.checkNotModified(etag.append('"').toString(), lastModified.toEpochMilli());
+    }
+
+    private void increment(String... keys) {
+        var now = Instant.now();
+        for(var key : keys) {
+            versions.merge(key, new Version(1, now), (current, next) ->
+                    new Version(current.counter() + 1, now.isAfter(current.modified()) ? now : current.modified()));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dk.emilvn.exam.cache;
+
+import dk.emilvn.exam.participant.ParticipantDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TaggedCacheTest {
+    private static final String CACHE_NAME = "participantCache";
+
+    private final CacheTagIndex tagIndex = new CacheTagIndex();
+    private final SimpleCacheManager cacheManager = new SimpleCacheManager();
+    private final CacheInvalidator cacheInvalidator = new CacheInvalidator(cacheManager, tagIndex);
+
+    @Test
+    void givenTagEvictedDuringPut_whenTagEvictedAgain_thenStoredValueEvicted() {
+        var delegate = new ConcurrentMapCache(CACHE_NAME) {
+            @Override
+            public void put(Object key, Object value) {
+                // A concurrent write evicts the participant while this value is on its way into the cache
+                cacheInvalidator.evictTags(CacheTags.participant(1L));
+                super.put(key, value);
+            }
+        };
+        var cache = new TaggedCache(delegate, tagIndex);
+        cacheManager.setCaches(List.of(cache));
+        cacheManager.afterPropertiesSet();
+
+        cache.put(1L, new ParticipantDTO(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin"));
+        cacheInvalidator.evictTags(CacheTags.participant(1L));
+
+        assertNull(cache.get(1L));
+    }
+}
@@ -0,0 +1,64 @@
+package dk.emilvn.exam.columnar;
+
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ResultColumnStoreTest {
+    private final ResultColumnStore store = new ResultColumnStore(mock(ResultColumnRepository.class));
+
+    private static ResultDTO result(long id, int result, LocalDate date, long disciplineId) {
+        return new ResultDTO(id, date, result, ResultType.POINTS, 1L, disciplineId);
+    }
+
+    @Test
+    void givenRowsBeyondInitialCapacity_whenSomeRemoved_thenScanSeesLiveRowsOnly() {
+        for(long id = 1; id <= 5000; id++) {
+            store.put(result(id, (int) id, LocalDate.of(2024, 1, 1), id % 2), id % 3 == 0, "Penguin");
+        }
+        for(long id = 1; id <= 5000; id += 4) {
+            store.remove(id);
+        }
+
+        assertEquals(3750, store.size());
+        var expected = LongStream.rangeClosed(1, 5000)
+                .filter(id -> id % 2 == 0 && id % 4 != 1)
+                .mapToInt(id -> (int) id)
+                .toArray();
+        var selected = store.selectResults(0L, null, null, null, null);
+        Arrays.sort(selected);
+        assertArrayEquals(expected, selected);
+    }
+
+    @Test
+    void givenUpdatedRow_whenSelect_thenLatestValuesReturned() {
+        store.put(result(1, 100, LocalDate.of(2023, 6, 1), 1), true, "Penguin");
+        store.put(result(2, 200, LocalDate.of(2024, 6, 1), 1), false, "Puffin");
+        store.put(result(1, 150, LocalDate.of(2024, 6, 1), 1), true, "Penguin");
+
+        assertEquals(2, store.size());
+        assertArrayEquals(new int[]{150}, store.selectResults(1L, true, null, null, null));
+        assertArrayEquals(new int[]{200}, store.selectResults(1L, null, "Puffin", LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1)));
+        assertEquals(0, store.selectResults(1L, null, null, LocalDate.of(2023, 1, 1), LocalDate.of(2024, 1, 1)).length);
+    }
+
+    @Test
+    void givenParticipantChangesClubAndGender_whenSelect_thenRowsRewritten() {
+        store.put(result(1, 100, LocalDate.of(2024, 6, 1), 1), true, "Penguin");
+        var generation = store.getGeneration();
+
+        store.updateParticipant(1L, false, "Puffin");
+
+        assertEquals(generation + 1, store.getGeneration());
+        assertEquals(0, store.selectResults(1L, true, null, null, null).length);
+        assertArrayEquals(new int[]{100}, store.selectResults(1L, false, "Puffin", null, null));
+    }
+}
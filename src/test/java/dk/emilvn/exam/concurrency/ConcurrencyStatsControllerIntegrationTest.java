@@ -0,0 +1,70 @@
+package dk.emilvn.exam.concurrency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.sql.DataSource;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency",
+        "spring.threads.virtual.enabled=true",
+        "app.datasource.bulkhead.max-concurrent=2",
+        "app.datasource.bulkhead.acquire-timeout=100ms"
+})
+@ActiveProfiles("test")
+class ConcurrencyStatsControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void givenVirtualThreadsEnabled_whenGetConcurrency_thenBulkheadStatsReturned() {
+        webTestClient.get()
+                .uri("/results")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/concurrency")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ConcurrencyStatsDTO.class)
+                .value(response -> {
+                    assertEquals(2, response.bulkhead().maxConcurrent());
+                    assertEquals(2, response.bulkhead().availablePermits());
+                    assertTrue(response.bulkhead().acquiredCount() > 0);
+                });
+    }
+
+    @Test
+    void givenAllPermitsHeld_whenGetConnection_thenRejectedAfterTimeout() throws Exception {
+        var bulkhead = assertInstanceOf(BulkheadDataSource.class, dataSource);
+        try(var first = dataSource.getConnection(); var second = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+        assertEquals(1, bulkhead.getStats().rejectedCount());
+        assertEquals(2, bulkhead.getStats().availablePermits());
+    }
+
+    @Test
+    void givenAllPermitsHeld_whenGetResults_thenServiceUnavailable() throws Exception {
+        try(var first = dataSource.getConnection(); var second = dataSource.getConnection()) {
+            webTestClient.get()
+                    .uri("/results")
+                    .exchange()
+                    .expectStatus().isEqualTo(503);
+        }
+    }
+}
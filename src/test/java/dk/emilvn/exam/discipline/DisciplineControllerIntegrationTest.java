@@ -1,11 +1,14 @@
 package dk.emilvn.exam.discipline;
 
 import dk.emilvn.exam.result.ResultType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
@@ -21,12 +24,13 @@ class DisciplineControllerIntegrationTest {
     private Long disciplineId;
 
     @BeforeEach
-    void setUp(@Autowired DisciplineRepository disciplineRepository) {
+    void setUp(@Autowired DisciplineRepository disciplineRepository, @Autowired DisciplineRegistry disciplineRegistry) {
         var discipline1 = new Discipline("Discipline1", ResultType.TIME_IN_MILLISECONDS);
         var discipline2 = new Discipline("Discipline2", ResultType.DISTANCE_IN_CENTIMETRES);
         var savedDiscipline = disciplineRepository.save(discipline1);
         disciplineRepository.save(discipline2);
         disciplineId = savedDiscipline.getId();
+        disciplineRegistry.reload();
     }
 
     @AfterEach
@@ -44,6 +48,32 @@ class DisciplineControllerIntegrationTest {
                 .hasSize(2);
     }
 
+    @Test
+    void givenResultType_whenGetAll_thenReturnDisciplinesWithResultType() {
+        webTestClient.get()
+                .uri("/disciplines?resultType=DISTANCE_IN_CENTIMETRES")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DisciplineDTO.class)
+                .value(disciplines -> {
+                    assertEquals(1, disciplines.size());
+                    assertEquals("Discipline2", disciplines.get(0).name());
+                });
+    }
+
+    @Test
+    void givenDisciplineId_whenGetById_thenNoStatementIsExecuted(@Autowired EntityManagerFactory entityManagerFactory) {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        webTestClient.get()
+                .uri("/disciplines/{id}", disciplineId)
+                .exchange()
+                .expectStatus().isOk();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
     @Test
     void givenDisciplineId_whenGetById_thenReturnDiscipline() {
         webTestClient.get()
@@ -97,4 +127,55 @@ class DisciplineControllerIntegrationTest {
                 .exchange()
                 .expectStatus().isNoContent();
     }
+
+    @Test
+    void whenGetAllReactive_thenStreamAllDisciplines() {
+        webTestClient.get()
+                .uri("/reactive/disciplines")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(DisciplineDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void givenInvalidDisciplineId_whenGetByIdReactive_thenNotFound() {
+        webTestClient.get()
+                .uri("/reactive/disciplines/{id}", -1)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void givenCurrentETag_whenGetAll_thenNotModifiedUntilDisciplineIsCreated() {
+        var etag = webTestClient.get()
+                .uri("/disciplines")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DisciplineDTO.class)
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+
+        webTestClient.get()
+                .uri("/disciplines")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.post()
+                .uri("/disciplines")
+                .bodyValue(new DisciplineDTO(null, "Discipline3", ResultType.POINTS))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get()
+                .uri("/disciplines")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isOk();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package dk.emilvn.exam.leaderboard;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRegistry;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.Participant;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import dk.emilvn.exam.result.Result;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import dk.emilvn.exam.result.ResultService;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LeaderboardControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Long participantId;
+    private Long timeDisciplineId;
+    private Long pointsDisciplineId;
+
+    @BeforeEach
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository, @Autowired DisciplineRegistry disciplineRegistry) {
+        var timeDiscipline = disciplineRepository.save(new Discipline("Time", ResultType.TIME_IN_MILLISECONDS));
+        var pointsDiscipline = disciplineRepository.save(new Discipline("Points", ResultType.POINTS));
+        timeDisciplineId = timeDiscipline.getId();
+        pointsDisciplineId = pointsDiscipline.getId();
+
+        var participant = new Participant("Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        participant.addDiscipline(timeDiscipline);
+        participant.addDiscipline(pointsDiscipline);
+        var savedParticipant = participantRepository.save(participant);
+        participantId = savedParticipant.getId();
+
+        for(var result : new int[]{300, 100, 200}) {
+            resultRepository.save(new Result(LocalDate.now(), result, ResultType.TIME_IN_MILLISECONDS, savedParticipant, timeDiscipline));
+            resultRepository.save(new Result(LocalDate.now(), result, ResultType.POINTS, savedParticipant, pointsDiscipline));
+        }
+        disciplineRegistry.reload();
+    }
+
+    @AfterEach
+    void tearDown(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+        resultRepository.deleteAll();
+        participantRepository.deleteAll();
+        disciplineRepository.deleteAll();
+    }
+
+    @Test
+    void givenTimeDiscipline_whenGetLeaderboard_thenLowestResultRanksFirst() {
+        webTestClient.get()
+                .uri("/disciplines/{id}/leaderboard", timeDisciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(LeaderboardEntryDTO.class)
+                .value(response -> {
+                    assertEquals(3, response.size());
+                    assertEquals(100, response.get(0).result());
+                    assertEquals(200, response.get(1).result());
+                    assertEquals(300, response.get(2).result());
+                });
+    }
+
+    @Test
+    void givenPointsDiscipline_whenGetLeaderboardWithLimit_thenHighestResultsReturned() {
+        webTestClient.get()
+                .uri("/disciplines/{id}/leaderboard?limit=2", pointsDisciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(LeaderboardEntryDTO.class)
+                .value(response -> {
+                    assertEquals(2, response.size());
+                    assertEquals(300, response.get(0).result());
+                    assertEquals(200, response.get(1).result());
+                });
+    }
+
+    @Test
+    void givenLoadedLeaderboard_whenResultCreatedAndDeleted_thenLeaderboardUpdated() {
+        webTestClient.get()
+                .uri("/disciplines/{id}/leaderboard", timeDisciplineId)
+                .exchange()
+                .expectStatus().isOk();
+
+        var created = webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.now(), 100, ResultType.TIME_IN_MILLISECONDS, participantId, timeDisciplineId))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ResultDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.get()
+                .uri("/disciplines/{id}/leaderboard", timeDisciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(LeaderboardEntryDTO.class)
+                .value(response -> {
+                    assertEquals(4, response.size());
+                    assertEquals(1, response.get(0).rank());
+                    assertEquals(1, response.get(1).rank());
+                    assertEquals(3, response.get(2).rank());
+                });
+
+        webTestClient.delete()
+                .uri("/results/{id}", created.id())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get()
+                .uri("/disciplines/{id}/leaderboard", timeDisciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(LeaderboardEntryDTO.class)
+                .hasSize(3);
+    }
+
+    @Test
+    void givenLoadedLeaderboard_whenBatchRolledBack_thenLeaderboardUnchanged(@Autowired ResultService resultService, @Autowired PlatformTransactionManager transactionManager) {
+        webTestClient.get()
+                .uri("/disciplines/{id}/leaderboard", timeDisciplineId)
+                .exchange()
+                .expectStatus().isOk();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            resultService.createAll(List.of(new ResultDTO(null, LocalDate.now(), 50, ResultType.TIME_IN_MILLISECONDS, participantId, timeDisciplineId)));
+            status.setRollbackOnly();
+        });
+
+        webTestClient.get()
+                .uri("/disciplines/{id}/leaderboard", timeDisciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(LeaderboardEntryDTO.class)
+                .value(response -> {
+                    assertEquals(3, response.size());
+                    assertEquals(100, response.get(0).result());
+                });
+    }
+
+    @Test
+    void givenInvalidDisciplineId_whenGetLeaderboard_thenNotFound() {
+        webTestClient.get()
+                .uri("/disciplines/{id}/leaderboard", 0L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,78 @@
+package dk.emilvn.exam.leaderboard;
+
+import dk.emilvn.exam.discipline.DisciplineDTO;
+import dk.emilvn.exam.discipline.DisciplineService;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardServiceTest {
+    private static final Long DISCIPLINE_ID = 1L;
+
+    private final ResultRepository resultRepository = mock(ResultRepository.class);
+    private final DisciplineService disciplineService = mock(DisciplineService.class);
+    private final LeaderboardService leaderboardService = new LeaderboardService(resultRepository, disciplineService);
+
+    private static ResultDTO result(long id, int result) {
+        return new ResultDTO(id, LocalDate.of(2024, 1, 1), result, ResultType.TIME_IN_MILLISECONDS, 1L, DISCIPLINE_ID);
+    }
+
+    @Test
+    void givenLeaderboardLoading_whenResultWritten_thenWriteWaitsForLoadAndIsKept() throws InterruptedException {
+        when(disciplineService.findById(DISCIPLINE_ID)).thenReturn(new DisciplineDTO(DISCIPLINE_ID, "Time", ResultType.TIME_IN_MILLISECONDS));
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        // The load reads its rows before the concurrent write commits
+        when(resultRepository.findAllAsDTOByDisciplineId(DISCIPLINE_ID)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(result(1, 200));
+        });
+
+        var reader = new Thread(() -> leaderboardService.getTop(DISCIPLINE_ID, null));
+        reader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        var writer = new Thread(() -> leaderboardService.update(null, result(2, 100)));
+        writer.start();
+        while(writer.isAlive() && writer.getState() != Thread.State.BLOCKED) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        reader.join(5000);
+        writer.join(5000);
+
+        var resultIds = leaderboardService.getTop(DISCIPLINE_ID, null).stream()
+                .map(LeaderboardEntryDTO::resultId)
+                .toList();
+        assertEquals(List.of(2L, 1L), resultIds);
+    }
+
+    @Test
+    void givenLoadedLeaderboards_whenResultMovedToOtherDiscipline_thenOnlyOldDisciplineLosesIt() {
+        var otherDisciplineId = 2L;
+        when(disciplineService.findById(DISCIPLINE_ID)).thenReturn(new DisciplineDTO(DISCIPLINE_ID, "Time", ResultType.TIME_IN_MILLISECONDS));
+        when(disciplineService.findById(otherDisciplineId)).thenReturn(new DisciplineDTO(otherDisciplineId, "Other", ResultType.TIME_IN_MILLISECONDS));
+        when(resultRepository.findAllAsDTOByDisciplineId(DISCIPLINE_ID)).thenReturn(List.of(result(1, 200)));
+        when(resultRepository.findAllAsDTOByDisciplineId(otherDisciplineId)).thenReturn(List.of());
+        leaderboardService.getTop(DISCIPLINE_ID, null);
+        leaderboardService.getTop(otherDisciplineId, null);
+
+        var moved = new ResultDTO(1L, LocalDate.of(2024, 1, 1), 200, ResultType.TIME_IN_MILLISECONDS, 1L, otherDisciplineId);
+        leaderboardService.update(result(1, 200), moved);
+
+        assertTrue(leaderboardService.getTop(DISCIPLINE_ID, null).isEmpty());
+        assertEquals(1L, leaderboardService.getTop(otherDisciplineId, null).getFirst().resultId());
+    }
+}
@@ -0,0 +1,66 @@
+package dk.emilvn.exam.metrics;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@ActiveProfiles("test")
+@AutoConfigureObservability
+class MetricsIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Long disciplineId;
+
+    @BeforeEach
+    void setUp(@Autowired DisciplineRepository disciplineRepository) {
+        disciplineId = disciplineRepository.save(new Discipline("Discipline", ResultType.POINTS)).getId();
+    }
+
+    @AfterEach
+    void tearDown(@Autowired DisciplineRepository disciplineRepository) {
+        disciplineRepository.deleteAll();
+    }
+
+    @Test
+    void givenRequests_whenScrapePrometheus_thenEndpointCacheStatementAndPoolMetricsExposed() {
+        webTestClient.get()
+                .uri("/disciplines")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri("/results/discipline/{id}", disciplineId)
+                .exchange()
+                .expectStatus().isOk();
+
+        var body = webTestClient.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        assertTrue(body.lines().anyMatch(line -> line.startsWith("http_server_requests_seconds_bucket{")
+                && line.contains("uri=\"/results/discipline/{disciplineId}\"")));
+        assertTrue(body.lines().anyMatch(line -> line.startsWith("cache_gets_total{") && line.contains("cache=\"disciplineCache\"")));
+        assertTrue(body.lines().anyMatch(line -> line.startsWith("cache_evictions_total{") && line.contains("cache=\"resultCache\"")));
+        assertTrue(body.lines().anyMatch(line -> line.startsWith("hibernate_request_statements_count{")
+                && line.contains("uri=\"/results/discipline/{disciplineId}\"")));
+        assertTrue(body.lines().anyMatch(line -> line.startsWith("hikaricp_connections_active{")));
+    }
+}
@@ -2,20 +2,26 @@ package dk.emilvn.exam.participant;
 
 import dk.emilvn.exam.discipline.Discipline;
 import dk.emilvn.exam.discipline.DisciplineDTO;
+import dk.emilvn.exam.discipline.DisciplineRegistry;
 import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.pagination.KeysetPage;
 import dk.emilvn.exam.result.ResultType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import java.time.LocalDate;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -28,7 +34,7 @@ class ParticipantControllerIntegrationTest {
     private Long disciplineId;
 
     @BeforeEach
-    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository) {
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired DisciplineRegistry disciplineRegistry) {
         var participant1 = new Participant("Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
         var participant2 = new Participant("Participant2", true, LocalDate.of(1996, 1, 1), "Penguin");
         var discipline = new Discipline("Discipline", ResultType.TIME_IN_MILLISECONDS);
@@ -38,6 +44,7 @@ class ParticipantControllerIntegrationTest {
         var savedDiscipline = disciplineRepository.save(discipline);
         participantId = savedParticipant.getId();
         disciplineId = savedDiscipline.getId();
+        disciplineRegistry.reload();
     }
 
     @AfterEach
@@ -66,6 +73,39 @@ class ParticipantControllerIntegrationTest {
                 .hasSize(1);
     }
 
+    @Test
+    void givenAfterQueryParam_whenGetAll_thenReturnKeysetPagesFollowingNextCursor() {
+        var firstPage = webTestClient.get()
+                .uri("/participants?after=&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(KeysetPage.NEXT_CURSOR_HEADER)
+                .expectBodyList(ParticipantDTO.class)
+                .hasSize(1)
+                .returnResult();
+        var nextCursor = firstPage.getResponseHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER);
+        assertEquals(participantId, firstPage.getResponseBody().getFirst().id());
+
+        webTestClient.get()
+                .uri("/participants?after={after}&size=2", nextCursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER)
+                .expectBodyList(ParticipantDTO.class)
+                .value(response -> {
+                    assertEquals(1, response.size());
+                    assertEquals("Participant2", response.getFirst().name());
+                });
+    }
+
+    @Test
+    void givenInvalidCursor_whenGetAll_thenBadRequest() {
+        webTestClient.get()
+                .uri("/participants?after=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void givenParticipantId_whenGetWithId_thenReturnParticipant() {
         webTestClient.get()
@@ -165,6 +205,47 @@ class ParticipantControllerIntegrationTest {
                 });
     }
 
+    @Test
+    void givenDisciplineIds_whenBulkUpdateDisciplines_thenAddedAndRemovedInOneRequest(@Autowired DisciplineRepository disciplineRepository, @Autowired DisciplineRegistry disciplineRegistry) {
+        var secondDisciplineId = disciplineRepository.save(new Discipline("Second", ResultType.POINTS)).getId();
+        disciplineRegistry.reload();
+
+        webTestClient.put()
+                .uri("/participants/{id}/disciplines/bulk", participantId)
+                .bodyValue(new ParticipantDisciplinesDTO(Set.of(disciplineId, secondDisciplineId), null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DisciplineDTO.class)
+                .value(response -> assertEquals(2, response.size()));
+
+        webTestClient.put()
+                .uri("/participants/{id}/disciplines/bulk", participantId)
+                .bodyValue(new ParticipantDisciplinesDTO(null, Set.of(disciplineId)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DisciplineDTO.class)
+                .value(response -> {
+                    assertEquals(1, response.size());
+                    assertEquals(secondDisciplineId, response.getFirst().id());
+                });
+    }
+
+    @Test
+    void givenUnknownDisciplineId_whenBulkUpdateDisciplines_thenNotFound() {
+        webTestClient.put()
+                .uri("/participants/{id}/disciplines/bulk", participantId)
+                .bodyValue(new ParticipantDisciplinesDTO(Set.of(disciplineId, -1L), null))
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.get()
+                .uri("/participants/{id}/disciplines", participantId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DisciplineDTO.class)
+                .hasSize(0);
+    }
+
     @Test
     void givenParticipantIdAndDisciplineId_whenRemoveDiscipline_thenReturnListOfParticipantDisciplines() {
         webTestClient.delete()
@@ -177,5 +258,82 @@ class ParticipantControllerIntegrationTest {
                 });
     }
 
+    @Test
+    void whenGetAllReactive_thenStreamAllParticipants() {
+        webTestClient.get()
+                .uri("/reactive/participants")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ParticipantDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void givenParticipantId_whenGetByIdReactive_thenReturnParticipant() {
+        webTestClient.get()
+                .uri("/reactive/participants/{id}", participantId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ParticipantDTO.class)
+                .value(participantDTO -> {
+                    assertEquals(participantId, participantDTO.id());
+                    assertEquals("Participant1", participantDTO.name());
+                    assertEquals(LocalDate.of(1996, 1, 1), participantDTO.birthDate());
+                });
+    }
+
+    @Test
+    void givenCurrentETag_whenGetById_thenNotModifiedUntilParticipantIsPatched() {
+        var etag = webTestClient.get()
+                .uri("/participants/{id}", participantId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .expectBody(ParticipantDTO.class)
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+
+        webTestClient.get()
+                .uri("/participants/{id}", participantId)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.patch()
+                .uri("/participants/{id}", participantId)
+                .bodyValue(new ParticipantDTO(null, "Participant5", null, null, null))
+                .exchange()
+                .expectStatus().isOk();
 
+        webTestClient.get()
+                .uri("/participants/{id}", participantId)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ParticipantDTO.class)
+                .value(response -> assertEquals("Participant5", response.name()));
+    }
+
+    @Test
+    void givenGzipETag_whenGetAllWithoutGzip_thenNotModified() {
+        var etag = webTestClient.get()
+                .uri("/participants")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("W/"));
+
+        webTestClient.get()
+                .uri("/participants")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package dk.emilvn.exam.participant;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import dk.emilvn.exam.cache.CachedJson;
+import dk.emilvn.exam.cache.JsonResponseCache;
+import dk.emilvn.exam.columnar.ResultColumnStore;
 import dk.emilvn.exam.config.CacheConfig;
 import dk.emilvn.exam.discipline.DisciplineService;
+import dk.emilvn.exam.version.AggregateVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,16 +14,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,11 +39,12 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = {CacheConfig.class, ParticipantService.class})
+@SpringBootTest(classes = {CacheConfig.class, ParticipantService.class, JsonResponseCache.class, AggregateVersions.class})
 @EnableCaching
 @ImportAutoConfiguration(classes = {
         CacheAutoConfiguration.class,
-        RedisAutoConfiguration.class
+        RedisAutoConfiguration.class,
+        JacksonAutoConfiguration.class
 })
 class ParticipantServiceCachingIntegrationTest {
 
@@ -42,15 +55,22 @@ class ParticipantServiceCachingIntegrationTest {
     @MockBean
     private DisciplineService disciplineService;
 
+    @MockBean
+    private ResultColumnStore resultColumnStore;
+
     @Autowired
     private ParticipantService participantService;
 
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
     @BeforeEach
     void clearCache() {
         Objects.requireNonNull(cacheManager.getCache("participantCache")).clear();
+        Objects.requireNonNull(cacheManager.getCache(JsonResponseCache.CACHE_NAME)).clear();
     }
 
     @Test
@@ -69,13 +89,29 @@ class ParticipantServiceCachingIntegrationTest {
         assertThat(cache.get(1L, ParticipantDTO.class)).isEqualTo(participantService.toDTO(aParticipant));
     }
 
+    @Test
+    void givenCaching_whenFindParticipantById_thenHitMissAndLoadStatisticsRecorded() {
+        var cache = (Cache<?, ?>) Objects.requireNonNull(cacheManager.getCache("participantCache")).getNativeCache();
+        var statsBefore = cache.stats();
+        var aParticipant = new Participant(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        given(mockParticipantRepository.findById(1L)).willReturn(Optional.of(aParticipant));
+
+        participantService.findById(1L);
+        participantService.findById(1L);
+
+        var stats = cache.stats().minus(statsBefore);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.loadSuccessCount()).isEqualTo(1);
+    }
+
     @Test
     void givenCaching_whenFindAll_thenParticipantsReturnedFromCache() {
         var cache = Objects.requireNonNull(cacheManager.getCache("participantCache"));
         var aParticipant = new Participant(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
         var anotherParticipant = new Participant(2L, "Participant2", true, LocalDate.of(1996, 1, 1), "Penguin");
         var participants = List.of(aParticipant, anotherParticipant);
-        given(mockParticipantRepository.findAll()).willReturn(participants);
+        given(mockParticipantRepository.findAllAsDTO()).willReturn(participants.stream().map(participantService::toDTO).toList());
 
         var participantsCacheMiss = participantService.findAll(null, null);
         var participantsCacheHit = participantService.findAll(null, null);
@@ -83,7 +119,7 @@ class ParticipantServiceCachingIntegrationTest {
         assertThat(participantsCacheMiss).isEqualTo(List.of(participantService.toDTO(aParticipant), participantService.toDTO(anotherParticipant)));
         assertThat(participantsCacheHit).isEqualTo(List.of(participantService.toDTO(aParticipant), participantService.toDTO(anotherParticipant)));
 
-        verify(mockParticipantRepository, times(1)).findAll();
+        verify(mockParticipantRepository, times(1)).findAllAsDTO();
         assertThat(Objects.requireNonNull(cache.get("findAll_null_null", List.class)).size()).isEqualTo(2);
     }
 
@@ -144,7 +180,7 @@ class ParticipantServiceCachingIntegrationTest {
         var anParticipant = new Participant(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
         given(mockParticipantRepository.findById(1L)).willReturn(Optional.of(anParticipant));
         given(mockParticipantRepository.existsById(1L)).willReturn(true);
-        given(mockParticipantRepository.findAll()).willReturn(List.of(anParticipant));
+        given(mockParticipantRepository.findAllAsDTO()).willReturn(Stream.of(anParticipant).map(participantService::toDTO).toList());
         participantService.findById(1L);
         participantService.findAll(null, null);
         assertThat(cache.get(1L, ParticipantDTO.class)).isEqualTo(participantService.toDTO(anParticipant));
@@ -161,7 +197,7 @@ class ParticipantServiceCachingIntegrationTest {
         var cache = Objects.requireNonNull(cacheManager.getCache("participantCache"));
         var anParticipant = new Participant(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
         given(mockParticipantRepository.save(any(Participant.class))).willReturn(anParticipant);
-        given(mockParticipantRepository.findAll()).willReturn(List.of(anParticipant));
+        given(mockParticipantRepository.findAllAsDTO()).willReturn(Stream.of(anParticipant).map(participantService::toDTO).toList());
         participantService.findAll(null, null);
         assertThat(Objects.requireNonNull(cache.get("findAll_null_null", List.class)).size()).isEqualTo(1);
 
@@ -170,4 +206,83 @@ class ParticipantServiceCachingIntegrationTest {
         assertThat(cache.get("findAll_null_null")).isNull();
     }
 
+    @Test
+    void givenCaching_whenUpdate_thenOnlyEntriesContainingParticipantAreEvicted(){
+        var cache = Objects.requireNonNull(cacheManager.getCache("participantCache"));
+        var aParticipant = new Participant(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        var anotherParticipant = new Participant(2L, "Participant2", true, LocalDate.of(1996, 1, 1), "Penguin");
+        given(mockParticipantRepository.findById(1L)).willReturn(Optional.of(aParticipant));
+        given(mockParticipantRepository.findById(2L)).willReturn(Optional.of(anotherParticipant));
+        given(mockParticipantRepository.findAllAsDTO()).willReturn(Stream.of(aParticipant, anotherParticipant).map(participantService::toDTO).toList());
+        participantService.findById(1L);
+        participantService.findById(2L);
+        participantService.findAll(null, null);
+
+        var updatedParticipant = new ParticipantDTO(2L, "UpdatedName", true, LocalDate.of(1996, 1, 1), "Penguin");
+        participantService.update(2L, updatedParticipant);
+
+        assertThat(cache.get(1L, ParticipantDTO.class)).isEqualTo(participantService.toDTO(aParticipant));
+        assertThat(cache.get(2L, ParticipantDTO.class)).isEqualTo(updatedParticipant);
+        assertThat(cache.get("findAll_null_null")).isNull();
+    }
+
+    @Test
+    void givenCaching_whenCreate_thenParticipantsCachedByIdAreKept(){
+        var cache = Objects.requireNonNull(cacheManager.getCache("participantCache"));
+        var aParticipant = new Participant(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        var anotherParticipant = new Participant(2L, "Participant2", true, LocalDate.of(1996, 1, 1), "Penguin");
+        given(mockParticipantRepository.findById(1L)).willReturn(Optional.of(aParticipant));
+        given(mockParticipantRepository.save(any(Participant.class))).willReturn(anotherParticipant);
+        participantService.findById(1L);
+
+        participantService.create(new ParticipantDTO(null, "Participant2", true, LocalDate.of(1996, 1, 1), "Penguin"));
+
+        assertThat(cache.get(1L, ParticipantDTO.class)).isEqualTo(participantService.toDTO(aParticipant));
+    }
+
+    @Test
+    void givenJsonCache_whenGetTwice_thenSameBytesReturned(){
+        var jsonCache = Objects.requireNonNull(cacheManager.getCache(JsonResponseCache.CACHE_NAME));
+        var aParticipant = new Participant(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        given(mockParticipantRepository.findAllAsDTO()).willReturn(Stream.of(aParticipant).map(participantService::toDTO).toList());
+
+        var miss = jsonResponseCache.get("participantCache", "findAll_null_null", () -> participantService.findAll(null, null), null);
+        var hit = jsonResponseCache.get("participantCache", "findAll_null_null", () -> participantService.findAll(null, null), null);
+
+        assertThat(new String(Objects.requireNonNull(miss.getBody()))).contains("\"name\":\"Participant1\"");
+        assertThat(hit.getBody()).isSameAs(miss.getBody());
+        assertThat(jsonCache.get("participantCache:findAll_null_null", CachedJson.class)).isNotNull();
+    }
+
+    @Test
+    void givenJsonCache_whenUpdate_thenEncodedListIsEvicted(){
+        var jsonCache = Objects.requireNonNull(cacheManager.getCache(JsonResponseCache.CACHE_NAME));
+        var aParticipant = new Participant(1L, "Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        given(mockParticipantRepository.findById(1L)).willReturn(Optional.of(aParticipant));
+        given(mockParticipantRepository.findAllAsDTO()).willReturn(Stream.of(aParticipant).map(participantService::toDTO).toList());
+        jsonResponseCache.get("participantCache", "findAll_null_null", () -> participantService.findAll(null, null), null);
+
+        participantService.update(1L, new ParticipantDTO(1L, "UpdatedName", true, LocalDate.of(1996, 1, 1), "Penguin"));
+
+        assertThat(jsonCache.get("participantCache:findAll_null_null")).isNull();
+    }
+
+    @Test
+    void givenJsonCache_whenGzipAccepted_thenCompressedBodyReturned() throws IOException {
+        var participants = new ArrayList<Participant>();
+        for(long id = 1; id <= 100; id++) {
+            participants.add(new Participant(id, "Participant" + id, true, LocalDate.of(1996, 1, 1), "Penguin"));
+        }
+        given(mockParticipantRepository.findAllAsDTO()).willReturn(participants.stream().map(participantService::toDTO).toList());
+
+        var plain = jsonResponseCache.get("participantCache", "findAll_null_null", () -> participantService.findAll(null, null), null);
+        var compressed = jsonResponseCache.get("participantCache", "findAll_null_null", () -> participantService.findAll(null, null), "br, gzip;q=0.8");
+
+        assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try(var gzipStream = new GZIPInputStream(new ByteArrayInputStream(Objects.requireNonNull(compressed.getBody())))) {
+            assertThat(gzipStream.readAllBytes()).isEqualTo(plain.getBody());
+        }
+    }
+
 }
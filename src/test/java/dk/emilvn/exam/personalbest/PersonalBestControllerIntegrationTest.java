@@ -0,0 +1,148 @@
+package dk.emilvn.exam.personalbest;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRegistry;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.Participant;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import dk.emilvn.exam.result.Result;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PersonalBestControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Long participantId;
+    private Long timeDisciplineId;
+    private Long pointsDisciplineId;
+    private Long bestTimeId;
+
+    @BeforeEach
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository, @Autowired DisciplineRegistry disciplineRegistry) {
+        var timeDiscipline = disciplineRepository.save(new Discipline("Time", ResultType.TIME_IN_MILLISECONDS));
+        var pointsDiscipline = disciplineRepository.save(new Discipline("Points", ResultType.POINTS));
+        timeDisciplineId = timeDiscipline.getId();
+        pointsDisciplineId = pointsDiscipline.getId();
+
+        var participant = new Participant("Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        participant.addDiscipline(timeDiscipline);
+        participant.addDiscipline(pointsDiscipline);
+        var savedParticipant = participantRepository.save(participant);
+        participantId = savedParticipant.getId();
+
+        bestTimeId = resultRepository.save(new Result(LocalDate.of(2023, 6, 1), 100, ResultType.TIME_IN_MILLISECONDS, savedParticipant, timeDiscipline)).getId();
+        resultRepository.save(new Result(LocalDate.of(2023, 8, 1), 150, ResultType.TIME_IN_MILLISECONDS, savedParticipant, timeDiscipline));
+        resultRepository.save(new Result(LocalDate.of(2024, 6, 1), 120, ResultType.TIME_IN_MILLISECONDS, savedParticipant, timeDiscipline));
+        resultRepository.save(new Result(LocalDate.of(2024, 5, 1), 300, ResultType.POINTS, savedParticipant, pointsDiscipline));
+        disciplineRegistry.reload();
+    }
+
+    @AfterEach
+    void tearDown(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+        resultRepository.deleteAll();
+        participantRepository.deleteAll();
+        disciplineRepository.deleteAll();
+    }
+
+    private List<PersonalBestDTO> getBests() {
+        return webTestClient.get()
+                .uri("/participants/{id}/bests", participantId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PersonalBestDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    void givenResultsInTwoSeasons_whenGetBests_thenBestLatestAndSeasonBestsReturned() {
+        var bests = getBests();
+
+        assertEquals(2, bests.size());
+        var time = bests.get(0);
+        assertEquals(timeDisciplineId, time.disciplineId());
+        assertEquals(3, time.count());
+        assertEquals(100, time.best().result());
+        assertEquals(120, time.latest().result());
+        assertEquals(100, time.seasonBests().get(2023).result());
+        assertEquals(120, time.seasonBests().get(2024).result());
+
+        var points = bests.get(1);
+        assertEquals(pointsDisciplineId, points.disciplineId());
+        assertEquals(1, points.count());
+        assertEquals(300, points.best().result());
+    }
+
+    @Test
+    void givenLoadedBests_whenBestResultDeleted_thenBestRecomputed() {
+        getBests();
+
+        webTestClient.delete()
+                .uri("/results/{id}", bestTimeId)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        var time = getBests().get(0);
+        assertEquals(2, time.count());
+        assertEquals(120, time.best().result());
+        assertEquals(150, time.seasonBests().get(2023).result());
+    }
+
+    @Test
+    void givenLoadedBests_whenBestResultPatchedWorse_thenBestRecomputed() {
+        getBests();
+
+        webTestClient.patch()
+                .uri("/results/{id}", bestTimeId)
+                .bodyValue(new ResultDTO(null, null, 200, null, null, null))
+                .exchange()
+                .expectStatus().isOk();
+
+        var time = getBests().get(0);
+        assertEquals(3, time.count());
+        assertEquals(120, time.best().result());
+        assertEquals(150, time.seasonBests().get(2023).result());
+    }
+
+    @Test
+    void givenLoadedBests_whenBetterResultCreated_thenBestUpdated() {
+        getBests();
+
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.of(2024, 7, 1), 90, ResultType.TIME_IN_MILLISECONDS, participantId, timeDisciplineId))
+                .exchange()
+                .expectStatus().isCreated();
+
+        var time = getBests().get(0);
+        assertEquals(4, time.count());
+        assertEquals(90, time.best().result());
+        assertEquals(90, time.latest().result());
+        assertEquals(90, time.seasonBests().get(2024).result());
+    }
+
+    @Test
+    void givenNonExistentParticipant_whenGetBests_thenNotFound() {
+        webTestClient.get()
+                .uri("/participants/{id}/bests", 0)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,215 @@
+package dk.emilvn.exam.records;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.AgeGroup;
+import dk.emilvn.exam.participant.Participant;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import dk.emilvn.exam.result.Result;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RecordControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Long disciplineId;
+    private Long penguinParticipantId;
+    private Long clubRecordId;
+    private Long ageGroupRecordId;
+
+    @BeforeEach
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+        var discipline = disciplineRepository.save(new Discipline("Time", ResultType.TIME_IN_MILLISECONDS));
+        disciplineId = discipline.getId();
+
+        var penguin = new Participant("Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        penguin.addDiscipline(discipline);
+        penguin = participantRepository.save(penguin);
+        penguinParticipantId = penguin.getId();
+        var puffin = new Participant("Participant2", true, LocalDate.of(1995, 1, 1), "Puffin");
+        puffin.addDiscipline(discipline);
+        puffin = participantRepository.save(puffin);
+
+        clubRecordId = resultRepository.save(new Result(LocalDate.of(2024, 6, 1), 120, ResultType.TIME_IN_MILLISECONDS, penguin, discipline)).getId();
+        resultRepository.save(new Result(LocalDate.of(2024, 7, 1), 130, ResultType.TIME_IN_MILLISECONDS, penguin, discipline));
+        ageGroupRecordId = resultRepository.save(new Result(LocalDate.of(2024, 6, 1), 110, ResultType.TIME_IN_MILLISECONDS, puffin, discipline)).getId();
+
+        webTestClient.post()
+                .uri("/records/rebuild")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @AfterEach
+    void tearDown(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+        resultRepository.deleteAll();
+        participantRepository.deleteAll();
+        disciplineRepository.deleteAll();
+    }
+
+    private List<RecordDTO> getRecords(RecordScope scope) {
+        return webTestClient.get()
+                .uri("/disciplines/{id}/records?scope={scope}", disciplineId, scope)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RecordDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private RecordDTO getClubRecord(String club) {
+        return getRecords(RecordScope.CLUB).stream()
+                .filter(record -> record.club().equals(club))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void givenResults_whenGetRecords_thenLowestTimePerScopeReturned() {
+        var ageGroupRecords = getRecords(RecordScope.AGE_GROUP);
+        assertEquals(1, ageGroupRecords.size());
+        assertEquals(ageGroupRecordId, ageGroupRecords.get(0).resultId());
+        assertEquals(AgeGroup.ADULT, ageGroupRecords.get(0).ageGroup());
+        assertTrue(ageGroupRecords.get(0).isMale());
+
+        assertEquals(2, getRecords(RecordScope.CLUB).size());
+        assertEquals(clubRecordId, getClubRecord("Penguin").resultId());
+        assertEquals(110, getClubRecord("Puffin").result());
+    }
+
+    @Test
+    void givenRecordSubscription_whenBetterResultPosted_thenRecordBrokenEventsPushed() {
+        var events = webTestClient.get()
+                .uri("/records/live?disciplineId={id}", disciplineId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<RecordBrokenDTO>>() {})
+                .getResponseBody()
+                .filter(event -> event.event() != null);
+
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.of(2024, 8, 1), 100, ResultType.TIME_IN_MILLISECONDS, penguinParticipantId, disciplineId))
+                .exchange()
+                .expectStatus().isCreated();
+
+        var broken = events.take(2).collectList().block(Duration.ofSeconds(5));
+        assertNotNull(broken);
+        assertEquals("record-broken", broken.get(0).event());
+        var previousRecords = broken.stream().map(event -> event.data().previous().resultId()).toList();
+        assertTrue(previousRecords.contains(clubRecordId));
+        assertTrue(previousRecords.contains(ageGroupRecordId));
+        assertTrue(broken.stream().allMatch(event -> event.data().record().result() == 100));
+        assertEquals(100, getClubRecord("Penguin").result());
+    }
+
+    @Test
+    void givenRecordHolder_whenImprovedInPlace_thenRecordBrokenAgainstPreviousValue() {
+        var events = webTestClient.get()
+                .uri("/records/live?disciplineId={id}", disciplineId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<RecordBrokenDTO>>() {})
+                .getResponseBody()
+                .filter(event -> event.event() != null);
+
+        webTestClient.put()
+                .uri("/results/{id}", clubRecordId)
+                .bodyValue(new ResultDTO(clubRecordId, LocalDate.of(2024, 6, 1), 115, ResultType.TIME_IN_MILLISECONDS, penguinParticipantId, disciplineId))
+                .exchange()
+                .expectStatus().isOk();
+
+        var broken = events.blockFirst(Duration.ofSeconds(5));
+        assertNotNull(broken);
+        assertEquals(clubRecordId, broken.data().record().resultId());
+        assertEquals(115, broken.data().record().result());
+        assertEquals(clubRecordId, broken.data().previous().resultId());
+        assertEquals(120, broken.data().previous().result());
+        assertEquals(115, getClubRecord("Penguin").result());
+    }
+
+    @Test
+    void givenRecordHolder_whenWorsenedInPlace_thenRecordFollowsTheResult() {
+        webTestClient.put()
+                .uri("/results/{id}", clubRecordId)
+                .bodyValue(new ResultDTO(clubRecordId, LocalDate.of(2024, 6, 1), 140, ResultType.TIME_IN_MILLISECONDS, penguinParticipantId, disciplineId))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertEquals(130, getClubRecord("Penguin").result());
+    }
+
+    @Test
+    void givenSlowerResult_whenPosted_thenRecordsUnchanged() {
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.of(2024, 8, 1), 125, ResultType.TIME_IN_MILLISECONDS, penguinParticipantId, disciplineId))
+                .exchange()
+                .expectStatus().isCreated();
+
+        assertEquals(clubRecordId, getClubRecord("Penguin").resultId());
+    }
+
+    @Test
+    void givenParticipantWithoutBirthDate_whenResultPosted_thenCreatedAndRecordsUnchanged(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository) {
+        var participant = new Participant("Participant3", true, null, "Penguin");
+        participant.addDiscipline(disciplineRepository.findById(disciplineId).orElseThrow());
+        var participantId = participantRepository.save(participant).getId();
+
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.of(2024, 8, 1), 100, ResultType.TIME_IN_MILLISECONDS, participantId, disciplineId))
+                .exchange()
+                .expectStatus().isCreated();
+
+        assertEquals(clubRecordId, getClubRecord("Penguin").resultId());
+        assertEquals(ageGroupRecordId, getRecords(RecordScope.AGE_GROUP).get(0).resultId());
+    }
+
+    @Test
+    void givenRecordHolder_whenDeleted_thenRecordRecomputed() {
+        webTestClient.delete()
+                .uri("/results/{id}", clubRecordId)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertEquals(130, getClubRecord("Penguin").result());
+        assertEquals(ageGroupRecordId, getRecords(RecordScope.AGE_GROUP).get(0).resultId());
+    }
+
+    @Test
+    void givenRecords_whenRebuild_thenEveryDisciplineCounted() {
+        webTestClient.post()
+                .uri("/records/rebuild")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RecordRebuildDTO.class)
+                .value(rebuild -> {
+                    assertTrue(rebuild.disciplineCount() >= 1);
+                    assertTrue(rebuild.recordCount() >= 3);
+                });
+    }
+}
@@ -1,7 +1,9 @@
 package dk.emilvn.exam.result;
 
 import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRegistry;
 import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.pagination.KeysetPage;
 import dk.emilvn.exam.participant.Participant;
 import dk.emilvn.exam.participant.ParticipantRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -9,10 +11,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,7 +35,7 @@ class ResultControllerIntegrationTest {
     private Long resultId;
 
     @BeforeEach
-    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository, @Autowired DisciplineRegistry disciplineRegistry) {
         var discipline = new Discipline("Discipline", ResultType.TIME_IN_MILLISECONDS);
         var savedDiscipline = disciplineRepository.save(discipline);
         disciplineId = savedDiscipline.getId();
@@ -45,6 +52,7 @@ class ResultControllerIntegrationTest {
         var savedResult = resultRepository.save(result1);
         resultRepository.save(result2);
         resultId = savedResult.getId();
+        disciplineRegistry.reload();
     }
 
     @AfterEach
@@ -74,6 +82,30 @@ class ResultControllerIntegrationTest {
                 .hasSize(1);
     }
 
+    @Test
+    void givenAfterQueryParam_whenGetAll_thenReturnKeysetPagesFollowingNextCursor() {
+        var firstPage = webTestClient.get()
+                .uri("/results?after=&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(KeysetPage.NEXT_CURSOR_HEADER)
+                .expectBodyList(ResultDTO.class)
+                .hasSize(1)
+                .returnResult();
+        var nextCursor = firstPage.getResponseHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER);
+        assertEquals(resultId, firstPage.getResponseBody().getFirst().id());
+
+        webTestClient.get()
+                .uri("/results?after={after}&size=1", nextCursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .value(response -> {
+                    assertEquals(1, response.size());
+                    assertEquals(resultId + 1, response.getFirst().id());
+                });
+    }
+
     @Test
     void givenResultId_whenGetWithId_thenReturnResult() {
         webTestClient.get()
@@ -164,6 +196,109 @@ class ResultControllerIntegrationTest {
                 .expectStatus().isNotFound();
     }
 
+    @Test
+    void givenLiveSubscription_whenPost_thenCreatedEventPushed() {
+        var events = webTestClient.get()
+                .uri("/results/live?disciplineId={id}", disciplineId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<ResultDTO>>() {})
+                .getResponseBody()
+                .filter(event -> event.event() != null);
+
+        var resultDTO = new ResultDTO(null, LocalDate.now(), 150, ResultType.TIME_IN_MILLISECONDS, participantId, disciplineId);
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(resultDTO)
+                .exchange()
+                .expectStatus().isCreated();
+
+        var event = events.blockFirst(Duration.ofSeconds(5));
+        assertNotNull(event);
+        assertEquals("created", event.event());
+        assertNotNull(event.data());
+        assertEquals(150, event.data().result());
+        assertEquals(disciplineId, event.data().disciplineId());
+    }
+
+    @Test
+    void givenLiveSubscription_whenDelete_thenDeletedEventPushed() {
+        var events = webTestClient.get()
+                .uri("/results/live?disciplineId={id}", disciplineId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<ResultDTO>>() {})
+                .getResponseBody()
+                .filter(event -> event.event() != null);
+
+        webTestClient.delete()
+                .uri("/results/{id}", resultId)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        var event = events.blockFirst(Duration.ofSeconds(5));
+        assertNotNull(event);
+        assertEquals("deleted", event.event());
+        assertEquals(String.valueOf(resultId), event.id());
+    }
+
+    @Test
+    void givenResultDTO_whenPostAsync_thenTicketCompletesWithCreatedResult() throws InterruptedException {
+        var resultDTO = new ResultDTO(null, LocalDate.now(), 120, ResultType.TIME_IN_MILLISECONDS, participantId, disciplineId);
+
+        var ticket = webTestClient.post()
+                .uri("/results/async")
+                .bodyValue(resultDTO)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().exists("Location")
+                .expectBody(ResultTicketDTO.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(ticket);
+        assertEquals(ResultTicketStatus.PENDING, ticket.status());
+
+        var completed = awaitTicket(ticket.id());
+        assertEquals(ResultTicketStatus.COMPLETED, completed.status());
+        assertNotNull(completed.resultId());
+
+        webTestClient.get()
+                .uri("/results/{id}", completed.resultId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ResultDTO.class)
+                .value(response -> assertEquals(120, response.result()));
+    }
+
+    @Test
+    void givenInvalidParticipantId_whenPostAsync_thenTicketFails() throws InterruptedException {
+        var resultDTO = new ResultDTO(null, LocalDate.now(), 120, ResultType.TIME_IN_MILLISECONDS, 0L, disciplineId);
+
+        var ticket = webTestClient.post()
+                .uri("/results/async")
+                .bodyValue(resultDTO)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(ResultTicketDTO.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(ticket);
+
+        var failed = awaitTicket(ticket.id());
+        assertEquals(ResultTicketStatus.FAILED, failed.status());
+        assertEquals("Participant not found", failed.error());
+    }
+
+    @Test
+    void givenUnknownTicketId_whenGetTicket_thenNotFound() {
+        webTestClient.get()
+                .uri("/results/tickets/{id}", "unknown")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
     @Test
     void givenInvalidParticipantId_whenPost_thenNotFound() {
         var resultDTO = new ResultDTO(null, LocalDate.now(), 100, ResultType.TIME_IN_MILLISECONDS, 0L, disciplineId);
@@ -185,4 +320,215 @@ class ResultControllerIntegrationTest {
                 .exchange()
                 .expectStatus().isBadRequest();
     }
+
+    @Test
+    void givenResultDTOs_whenPostBatch_thenValidResultsCreatedAndInvalidReported() {
+        var resultDTOs = List.of(
+                new ResultDTO(null, LocalDate.now(), 100, ResultType.TIME_IN_MILLISECONDS, participantId, disciplineId),
+                new ResultDTO(null, LocalDate.now(), 200, ResultType.TIME_IN_MILLISECONDS, participantId, disciplineId),
+                new ResultDTO(null, LocalDate.now(), 300, ResultType.TIME_IN_MILLISECONDS, participantId + 1, disciplineId),
+                new ResultDTO(null, LocalDate.now(), 400, ResultType.TIME_IN_MILLISECONDS, 0L, disciplineId)
+        );
+
+        webTestClient.post()
+                .uri("/results/batch")
+                .bodyValue(resultDTOs)
+                .exchange()
+                .expectStatus().isEqualTo(207)
+                .expectBody(ResultBatchDTO.class)
+                .value(response -> {
+                    assertEquals(2, response.created().size());
+                    assertNotNull(response.created().getFirst().id());
+                    assertEquals(2, response.errors().size());
+                    assertEquals(new ResultBatchErrorDTO(2, "Participant does not have discipline"), response.errors().get(0));
+                    assertEquals(new ResultBatchErrorDTO(3, "Participant not found"), response.errors().get(1));
+                });
+
+        webTestClient.get()
+                .uri("/results/discipline/{id}", disciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(4);
+    }
+
+    @Test
+    void whenExportAsNdjson_thenReturnOneJsonLinePerResult() {
+        webTestClient.get()
+                .uri("/results/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/x-ndjson")
+                .expectBody(String.class)
+                .value(response -> {
+                    var lines = response.split("\n");
+                    assertEquals(2, lines.length);
+                    assertTrue(lines[0].contains("\"id\":" + resultId));
+                    assertTrue(lines[0].contains("\"participantId\":" + participantId));
+                });
+    }
+
+    @Test
+    void whenExportAsCsv_thenReturnHeaderAndOneRowPerResult() {
+        webTestClient.get()
+                .uri("/results/export?format=csv")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectBody(String.class)
+                .value(response -> {
+                    var lines = response.split("\n");
+                    assertEquals(3, lines.length);
+                    assertEquals("id,date,result,resultType,participantId,disciplineId", lines[0]);
+                    assertEquals(resultId + "," + LocalDate.now() + ",100,TIME_IN_MILLISECONDS," + participantId + "," + disciplineId, lines[1]);
+                });
+    }
+
+    @Test
+    void givenUnsupportedFormat_whenExport_thenBadRequest() {
+        webTestClient.get()
+                .uri("/results/export?format=xml")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void givenMatchingFilters_whenSearch_thenReturnResultsBestFirst() {
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.now().minusDays(10), 50, ResultType.TIME_IN_MILLISECONDS, participantId, disciplineId))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get()
+                .uri("/results/search?disciplineId={disciplineId}&isMale=true&ageGroup=ADULT&club=Penguin", disciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .value(response -> {
+                    assertEquals(3, response.size());
+                    assertEquals(50, response.getFirst().result());
+                });
+
+        webTestClient.get()
+                .uri("/results/search?disciplineId={disciplineId}&from={from}", disciplineId, LocalDate.now().minusDays(1))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void givenNonMatchingFilters_whenSearch_thenReturnNoResults() {
+        webTestClient.get()
+                .uri("/results/search?isMale=false")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(0);
+
+        webTestClient.get()
+                .uri("/results/search?ageGroup=JUNIOR")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(0);
+    }
+
+    @Test
+    void givenInvalidAgeGroup_whenSearch_thenBadRequest() {
+        webTestClient.get()
+                .uri("/results/search?ageGroup=TODDLER")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenGetAllReactive_thenStreamAllResults() {
+        webTestClient.get()
+                .uri("/reactive/results")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ResultDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void givenResultId_whenGetByIdReactive_thenReturnResult() {
+        webTestClient.get()
+                .uri("/reactive/results/{id}", resultId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ResultDTO.class)
+                .value(resultDTO -> {
+                    assertEquals(resultId, resultDTO.id());
+                    assertEquals(participantId, resultDTO.participantId());
+                    assertEquals(disciplineId, resultDTO.disciplineId());
+                });
+    }
+
+    @Test
+    void givenDisciplineId_whenGetByDisciplineIdReactive_thenStreamResults() {
+        webTestClient.get()
+                .uri("/reactive/results/discipline/{disciplineId}", disciplineId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(2);
+    }
+
+    private ResultTicketDTO awaitTicket(String ticketId) throws InterruptedException {
+        for(int attempt = 0; attempt < 50; attempt++) {
+            var ticket = webTestClient.get()
+                    .uri("/results/tickets/{id}", ticketId)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(ResultTicketDTO.class)
+                    .returnResult()
+                    .getResponseBody();
+            if(ticket != null && ticket.status() != ResultTicketStatus.PENDING) {
+                return ticket;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Ticket " + ticketId + " is still pending");
+    }
+
+    @Test
+    void givenCurrentETag_whenGetByDisciplineId_thenNotModifiedUntilResultInDisciplineIsCreated() {
+        var etag = webTestClient.get()
+                .uri("/results/discipline/{id}", disciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(2)
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+
+        webTestClient.get()
+                .uri("/results/discipline/{id}", disciplineId)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.now(), 90, ResultType.TIME_IN_MILLISECONDS, participantId, disciplineId))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get()
+                .uri("/results/discipline/{id}", disciplineId)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(3);
+    }
 }
\ No newline at end of file
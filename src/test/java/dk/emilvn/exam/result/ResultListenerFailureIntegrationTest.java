@@ -0,0 +1,93 @@
+package dk.emilvn.exam.result;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRegistry;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.Participant;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.datasource.url=jdbc:h2:mem:listenerfailure")
+@ActiveProfiles("test")
+class ResultListenerFailureIntegrationTest {
+
+    @TestConfiguration
+    static class FailingListenerConfig {
+        @Bean
+        FailingListener failingListener() {
+            return new FailingListener();
+        }
+    }
+
+    static class FailingListener {
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+        public void onResultChanged(ResultChangedEvent event) {
+            throw new IllegalStateException("Listener failed");
+        }
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Long participantId;
+    private Long disciplineId;
+
+    @BeforeEach
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired DisciplineRegistry disciplineRegistry) {
+        var discipline = disciplineRepository.save(new Discipline("Discipline", ResultType.TIME_IN_MILLISECONDS));
+        disciplineId = discipline.getId();
+        var participant = new Participant("Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        participant.addDiscipline(discipline);
+        participantId = participantRepository.save(participant).getId();
+        disciplineRegistry.reload();
+    }
+
+    @AfterEach
+    void tearDown(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+        resultRepository.deleteAll();
+        participantRepository.deleteAll();
+        disciplineRepository.deleteAll();
+    }
+
+    @Test
+    void givenFailingAfterCommitListener_whenResultCreated_thenCreatedAndVersionBumped() {
+        var etag = webTestClient.get()
+                .uri("/results")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+
+        var created = webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.now(), 100, ResultType.TIME_IN_MILLISECONDS, participantId, disciplineId))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ResultDTO.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(created);
+
+        webTestClient.get()
+                .uri("/results")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
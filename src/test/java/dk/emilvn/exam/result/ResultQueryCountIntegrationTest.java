@@ -0,0 +1,144 @@
+package dk.emilvn.exam.result;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.Participant;
+import dk.emilvn.exam.participant.ParticipantDTO;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ResultQueryCountIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Statistics statistics;
+    private Long participantId;
+    private Long disciplineId;
+    private Long resultId;
+
+    @BeforeEach
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository, @Autowired EntityManagerFactory entityManagerFactory, @Autowired CacheManager cacheManager) {
+        var discipline = disciplineRepository.save(new Discipline("Discipline", ResultType.TIME_IN_MILLISECONDS));
+        disciplineId = discipline.getId();
+
+        // Several participants with disciplines of their own, so an N+1 fan-out would show up in the counts
+        for(int i = 0; i < 5; i++) {
+            var participant = new Participant("Participant" + i, true, LocalDate.of(1996, 1, 1), "Penguin");
+            participant.addDiscipline(discipline);
+            var savedParticipant = participantRepository.save(participant);
+            participantId = savedParticipant.getId();
+            resultId = resultRepository.save(new Result(LocalDate.now(), 100 + i, ResultType.TIME_IN_MILLISECONDS, savedParticipant, discipline)).getId();
+        }
+
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+        resultRepository.deleteAll();
+        participantRepository.deleteAll();
+        disciplineRepository.deleteAll();
+    }
+
+    @Test
+    void whenGetAll_thenOneStatementIsExecuted() {
+        webTestClient.get()
+                .uri("/results")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(5);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // Discipline lookups are served from the registry, so an unknown id must not reload the table
+    @Test
+    void whenGetUnknownDiscipline_thenNoStatementIsExecuted() {
+        webTestClient.get()
+                .uri("/disciplines/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    // Listing participants by page must not fetch their disciplines or count the table
+    @Test
+    void whenGetParticipantPage_thenOneStatementIsExecuted() {
+        webTestClient.get()
+                .uri("/participants?page=0&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ParticipantDTO.class)
+                .hasSize(2);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenGetPage_thenOneStatementIsExecuted() {
+        webTestClient.get()
+                .uri("/results?page=0&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(2);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenGetById_thenOneStatementIsExecuted() {
+        webTestClient.get()
+                .uri("/results/{id}", resultId)
+                .exchange()
+                .expectStatus().isOk();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenGetByParticipantId_thenOneStatementIsExecuted() {
+        webTestClient.get()
+                .uri("/results/participant/{id}", participantId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(1);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenGetByDisciplineId_thenOneStatementIsExecuted() {
+        webTestClient.get()
+                .uri("/results/discipline/{id}", disciplineId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResultDTO.class)
+                .hasSize(5);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,88 @@
+package dk.emilvn.exam.seed;
+
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.ParticipantDTO;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:seed",
+        "app.seed.mode=synthetic",
+        "app.seed.participants=200",
+        "app.seed.results=5000",
+        "app.seed.batch-size=500"
+})
+@ActiveProfiles("test")
+class SyntheticDataSeederIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ParticipantRepository participantRepository;
+
+    @Autowired
+    private DisciplineRepository disciplineRepository;
+
+    @Autowired
+    private ResultRepository resultRepository;
+
+    @Test
+    void givenSyntheticMode_whenStarted_thenConfiguredVolumesAreLoaded() {
+        assertEquals(14, disciplineRepository.count());
+        assertEquals(200, participantRepository.count());
+        assertEquals(5000, resultRepository.count());
+    }
+
+    @Test
+    void givenSameSettings_whenGenerated_thenRowsAreIdentical() {
+        var settings = new SeedSettings(7, 10, 50, 100, 10);
+        var first = new SyntheticDataGenerator(settings).results().toList();
+        var second = new SyntheticDataGenerator(settings).results().toList();
+
+        assertEquals(first.size(), second.size());
+        for(int i = 0; i < first.size(); i++) {
+            assertArrayEquals(first.get(i), second.get(i));
+        }
+    }
+
+    @Test
+    void givenSeededDatabase_whenCreatingThroughApi_thenIdsContinueAfterLoadedRows() {
+        var participant = participantRepository.findById(1L).orElseThrow();
+        var discipline = participant.getDisciplines().iterator().next();
+
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.of(2024, 6, 1), 1000, discipline.getResultType(), participant.getId(), discipline.getId()))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ResultDTO.class)
+                .value(response -> {
+                    assertTrue(response.id() > 5000);
+                    resultRepository.deleteById(response.id());
+                });
+
+        webTestClient.post()
+                .uri("/participants")
+                .bodyValue(new ParticipantDTO(null, "New", true, LocalDate.of(1996, 1, 1), "Penguin"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ParticipantDTO.class)
+                .value(response -> {
+                    assertTrue(response.id() > 200);
+                    participantRepository.deleteById(response.id());
+                });
+    }
+}
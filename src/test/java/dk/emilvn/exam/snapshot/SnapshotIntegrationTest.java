@@ -0,0 +1,195 @@
+package dk.emilvn.exam.snapshot;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineDTO;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.Participant;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import dk.emilvn.exam.result.Result;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot",
+        "app.snapshot.enabled=true",
+        "app.snapshot.interval=0s",
+        "app.snapshot.on-shutdown=false"
+})
+@ActiveProfiles("test")
+class SnapshotIntegrationTest {
+    private static final List<String> TABLES = List.of("discipline", "participant", "participant_disciplines", "result");
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) {
+        registry.add("app.snapshot.path", () -> directory.resolve("snapshot.bin").toString());
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long disciplineId;
+    private Long participantId;
+
+    @BeforeEach
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+        var discipline = disciplineRepository.save(new Discipline("Højdespring", ResultType.HEIGHT_IN_CENTIMETRES));
+        disciplineId = discipline.getId();
+
+        var participant = new Participant("Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        participant.addDiscipline(discipline);
+        participant = participantRepository.save(participant);
+        participantId = participant.getId();
+        var clubless = new Participant("Participant2", false, LocalDate.of(1995, 1, 1), null);
+        clubless.addDiscipline(discipline);
+        clubless = participantRepository.save(clubless);
+
+        resultRepository.save(new Result(LocalDate.of(2024, 6, 1), 180, ResultType.HEIGHT_IN_CENTIMETRES, participant, discipline));
+        resultRepository.save(new Result(LocalDate.of(2024, 7, 1), 185, ResultType.HEIGHT_IN_CENTIMETRES, participant, discipline));
+        resultRepository.save(new Result(LocalDate.of(2024, 6, 1), 170, ResultType.HEIGHT_IN_CENTIMETRES, clubless, discipline));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        clearDatabase();
+        Files.deleteIfExists(directory.resolve("snapshot.bin"));
+    }
+
+    private void clearDatabase() {
+        TABLES.reversed().forEach(table -> jdbcTemplate.update("delete from " + table));
+    }
+
+    private List<Map<String, Object>> rows(String table) {
+        var orderBy = table.equals("participant_disciplines") ? "participant_id, disciplines_id" : "id";
+        return jdbcTemplate.queryForList("select * from " + table + " order by " + orderBy);
+    }
+
+    private SnapshotDTO snapshot() {
+        return webTestClient.post()
+                .uri("/snapshots")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SnapshotDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    void givenData_whenSnapshot_thenEveryTableIsWritten() throws IOException {
+        var snapshot = snapshot();
+
+        assertEquals(1, snapshot.disciplineCount());
+        assertEquals(2, snapshot.participantCount());
+        assertEquals(2, snapshot.assignmentCount());
+        assertEquals(3, snapshot.resultCount());
+        assertEquals(Files.size(Path.of(snapshot.path())), snapshot.bytes());
+        assertFalse(Files.exists(Path.of(snapshot.path() + ".tmp")));
+    }
+
+    @Test
+    void givenSnapshot_whenRestoredIntoEmptyDatabase_thenRowsAreIdentical() {
+        var before = TABLES.stream().map(this::rows).toList();
+        var snapshot = snapshot();
+        clearDatabase();
+
+        var restored = snapshotService.restore(Path.of(snapshot.path()));
+
+        assertEquals(snapshot.resultCount(), restored.resultCount());
+        assertEquals(snapshot.createdAt(), restored.createdAt());
+        assertEquals(before, TABLES.stream().map(this::rows).toList());
+    }
+
+    @Test
+    void givenRestoredDatabase_whenCreatingThroughApi_thenIdsContinueAfterRestoredRows() {
+        var snapshot = snapshot();
+        var maxResultId = jdbcTemplate.queryForObject("select max(id) from result", Long.class);
+        clearDatabase();
+        snapshotService.restore(Path.of(snapshot.path()));
+
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.of(2024, 8, 1), 190, ResultType.HEIGHT_IN_CENTIMETRES, participantId, disciplineId))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ResultDTO.class)
+                .value(response -> assertTrue(response.id() > maxResultId));
+
+        webTestClient.post()
+                .uri("/disciplines")
+                .bodyValue(new DisciplineDTO(null, "Stangspring", ResultType.HEIGHT_IN_CENTIMETRES))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(DisciplineDTO.class)
+                .value(response -> assertTrue(response.id() > disciplineId));
+    }
+
+    @Test
+    void givenCorruptSnapshot_whenRestored_thenRejectedAndNothingInserted() throws IOException {
+        var path = Path.of(snapshot().path());
+        var bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+        clearDatabase();
+
+        var exception = assertThrows(IllegalStateException.class, () -> snapshotService.restore(path));
+
+        assertTrue(exception.getMessage().contains("checksum"));
+        TABLES.forEach(table -> assertTrue(rows(table).isEmpty()));
+    }
+
+    @Test
+    void givenNonEmptyDatabase_whenRestored_thenRejected() {
+        var path = Path.of(snapshot().path());
+
+        assertThrows(IllegalStateException.class, () -> snapshotService.restore(path));
+        assertEquals(3, rows("result").size());
+    }
+
+    @Test
+    void givenSnapshot_whenMappedOrReadIntoHeap_thenSameRowsAreRead() throws IOException {
+        var path = Path.of(snapshot().path());
+        var mapped = SnapshotReader.open(path, 0);
+        var heap = SnapshotReader.open(path, Long.MAX_VALUE);
+
+        assertEquals(heap.getResultCount(), mapped.getResultCount());
+        assertArrayEquals(heap.nextDiscipline(), mapped.nextDiscipline());
+        for(int i = 0; i < heap.getParticipantCount(); i++) {
+            assertArrayEquals(heap.nextParticipant(), mapped.nextParticipant());
+        }
+        for(int i = 0; i < heap.getAssignmentCount(); i++) {
+            assertArrayEquals(heap.nextAssignment(), mapped.nextAssignment());
+        }
+        for(int i = 0; i < heap.getResultCount(); i++) {
+            assertArrayEquals(heap.nextResult(), mapped.nextResult());
+        }
+    }
+}
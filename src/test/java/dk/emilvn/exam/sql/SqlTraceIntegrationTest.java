@@ -0,0 +1,59 @@
+package dk.emilvn.exam.sql;
+
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqltrace",
+        "app.sql.trace.sample-rate=1.0",
+        "app.sql.trace.capture-parameters=true"
+})
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SqlTraceIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Long disciplineId;
+
+    @BeforeEach
+    void setUp(@Autowired DisciplineRepository disciplineRepository) {
+        disciplineId = disciplineRepository.save(new Discipline("Discipline", ResultType.POINTS)).getId();
+    }
+
+    @AfterEach
+    void tearDown(@Autowired DisciplineRepository disciplineRepository) {
+        disciplineRepository.deleteAll();
+    }
+
+    @Test
+    void givenFullSampling_whenGetByDisciplineId_thenStatementWithParametersAndRequestSummaryLogged(CapturedOutput output) throws InterruptedException {
+        webTestClient.get()
+                .uri("/results/discipline/{id}", disciplineId)
+                .exchange()
+                .expectStatus().isOk();
+
+        var summary = "GET /results/discipline/{disciplineId} 200: 1 statements";
+        // The SQL logger is asynchronous, so the lines show up shortly after the request
+        for(int i = 0; i < 50 && !output.getOut().contains(summary); i++) {
+            Thread.sleep(100);
+        }
+
+        assertTrue(output.getOut().contains(summary));
+        assertTrue(output.getOut().lines().anyMatch(line -> line.contains("from result") && line.contains("[" + disciplineId + "]")));
+    }
+}
@@ -0,0 +1,166 @@
+package dk.emilvn.exam.stats;
+
+import dk.emilvn.exam.columnar.ResultColumnStore;
+import dk.emilvn.exam.discipline.Discipline;
+import dk.emilvn.exam.discipline.DisciplineRegistry;
+import dk.emilvn.exam.discipline.DisciplineRepository;
+import dk.emilvn.exam.participant.Participant;
+import dk.emilvn.exam.participant.ParticipantDTO;
+import dk.emilvn.exam.participant.ParticipantRepository;
+import dk.emilvn.exam.result.Result;
+import dk.emilvn.exam.result.ResultDTO;
+import dk.emilvn.exam.result.ResultRepository;
+import dk.emilvn.exam.result.ResultType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class DisciplineStatsControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Long disciplineId;
+    private Long maleParticipantId;
+
+    @BeforeEach
+    void setUp(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository, @Autowired ResultColumnStore resultColumnStore, @Autowired DisciplineRegistry disciplineRegistry) {
+        var discipline = disciplineRepository.save(new Discipline("Points", ResultType.POINTS));
+        disciplineId = discipline.getId();
+
+        var male = new Participant("Participant1", true, LocalDate.of(1996, 1, 1), "Penguin");
+        male.addDiscipline(discipline);
+        male = participantRepository.save(male);
+        maleParticipantId = male.getId();
+        var female = new Participant("Participant2", false, LocalDate.of(1996, 1, 1), "Puffin");
+        female.addDiscipline(discipline);
+        female = participantRepository.save(female);
+
+        for(int result = 1000; result >= 100; result -= 100) {
+            resultRepository.save(new Result(LocalDate.of(2024, 5, 1), result, ResultType.POINTS, male, discipline));
+        }
+        resultRepository.save(new Result(LocalDate.of(2023, 5, 1), 50, ResultType.POINTS, female, discipline));
+        resultRepository.save(new Result(LocalDate.of(2024, 5, 1), 5000, ResultType.POINTS, female, discipline));
+        resultColumnStore.reload();
+        disciplineRegistry.reload();
+    }
+
+    @AfterEach
+    void tearDown(@Autowired ParticipantRepository participantRepository, @Autowired DisciplineRepository disciplineRepository, @Autowired ResultRepository resultRepository) {
+        resultRepository.deleteAll();
+        participantRepository.deleteAll();
+        disciplineRepository.deleteAll();
+    }
+
+    private DisciplineStatsDTO getStats(String query) {
+        return webTestClient.get()
+                .uri("/disciplines/" + disciplineId + "/stats" + query)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(DisciplineStatsDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    void givenGenderFilter_whenGetStats_thenQuantilesAndHistogramOfMatchingResults() {
+        var stats = getStats("?isMale=true&buckets=3");
+
+        assertEquals(10, stats.count());
+        assertEquals(550.0, stats.mean());
+        assertEquals(500, stats.median());
+        assertEquals(100, stats.p10());
+        assertEquals(900, stats.p90());
+        assertEquals(List.of(
+                new HistogramBucketDTO(100, 401, 4),
+                new HistogramBucketDTO(401, 702, 3),
+                new HistogramBucketDTO(702, 1003, 3)
+        ), stats.histogram());
+    }
+
+    @Test
+    void givenSeasonFilter_whenGetStats_thenOnlyThatSeasonCounted() {
+        var stats = getStats("?season=2023");
+
+        assertEquals(1, stats.count());
+        assertEquals(50, stats.median());
+        assertEquals(50, stats.p10());
+        assertEquals(50, stats.p90());
+
+        assertEquals(11, getStats("?season=2024").count());
+    }
+
+    @Test
+    void givenClubFilter_whenGetStats_thenOnlyThatClubCounted() {
+        var stats = getStats("?club=Puffin");
+
+        assertEquals(2, stats.count());
+        assertEquals(2525.0, stats.mean());
+        assertEquals(0, getStats("?club=Unknown").count());
+    }
+
+    @Test
+    void givenCachedStats_whenParticipantChangesClub_thenStatsRecomputed() {
+        assertEquals(2, getStats("?club=Puffin").count());
+
+        webTestClient.patch()
+                .uri("/participants/{id}", maleParticipantId)
+                .bodyValue(new ParticipantDTO(null, null, null, null, "Puffin"))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertEquals(12, getStats("?club=Puffin").count());
+    }
+
+    @Test
+    void givenNoMatchingResults_whenGetStats_thenEmptyStats() {
+        var stats = getStats("?season=2000");
+
+        assertEquals(0, stats.count());
+        assertNull(stats.median());
+        assertEquals(List.of(), stats.histogram());
+    }
+
+    @Test
+    void givenCachedStats_whenResultCreated_thenStatsRecomputed() {
+        assertEquals(10, getStats("?isMale=true").count());
+
+        webTestClient.post()
+                .uri("/results")
+                .bodyValue(new ResultDTO(null, LocalDate.of(2024, 6, 1), 2000, ResultType.POINTS, maleParticipantId, disciplineId))
+                .exchange()
+                .expectStatus().isCreated();
+
+        var stats = getStats("?isMale=true");
+        assertEquals(11, stats.count());
+        assertEquals(600, stats.median());
+    }
+
+    @Test
+    void givenInvalidBuckets_whenGetStats_thenBadRequest() {
+        webTestClient.get()
+                .uri("/disciplines/{id}/stats?buckets=0", disciplineId)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void givenNonExistentDiscipline_whenGetStats_thenNotFound() {
+        webTestClient.get()
+                .uri("/disciplines/{id}/stats", 0)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}